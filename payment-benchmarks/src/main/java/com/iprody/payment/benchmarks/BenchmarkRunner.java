@@ -0,0 +1,39 @@
+package com.iprody.payment.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the regular JMH command line and always writes machine-readable
+ * results, by default to {@code target/jmh-result.json}, so runs of different builds can be diffed.
+ * Without an explicit include pattern only the micro benchmarks run; pass {@code RoundTrip} or
+ * {@code PaymentInsert} to run the container-backed harnesses.
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_INCLUDE = ".*Benchmark\\..*";
+    private static final String DEFAULT_RESULT = "target/jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+            .parent(commandLine)
+            .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+            .result(commandLine.getResult().orElse(System.getProperty("jmh.result", DEFAULT_RESULT)));
+
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(DEFAULT_INCLUDE);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
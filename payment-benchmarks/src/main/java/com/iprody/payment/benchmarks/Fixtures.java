@@ -0,0 +1,49 @@
+package com.iprody.payment.benchmarks;
+
+import com.iprody.payment.service.app.persistence.entity.Payment;
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+final class Fixtures {
+
+    static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private Fixtures() {
+    }
+
+    static Payment payment() {
+        final Payment payment = new Payment();
+        payment.setGuid(UUID.randomUUID());
+        payment.setInquiryRefId(UUID.randomUUID());
+        payment.setAmount(new BigDecimal("125.50"));
+        payment.setCurrency("USD");
+        payment.setTransactionRefId(UUID.randomUUID());
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setNote("benchmark");
+        payment.setCreatedAt(NOW);
+        payment.setUpdatedAt(NOW);
+        return payment;
+    }
+
+    static XPaymentAdapterRequestMessage request(BigDecimal amount, String currency) {
+        return new XPaymentAdapterRequestMessage(UUID.randomUUID(), UUID.randomUUID(), amount, currency, NOW);
+    }
+
+    static XPaymentAdapterResponseMessage response(BigDecimal amount, String currency) {
+        return XPaymentAdapterResponseMessage.builder()
+            .messageId(UUID.randomUUID())
+            .paymentGuid(UUID.randomUUID())
+            .amount(amount)
+            .currency(currency)
+            .transactionRefId(UUID.randomUUID())
+            .status(XPaymentAdapterStatus.SUCCEEDED)
+            .occurredAt(NOW)
+            .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.iprody.payment.benchmarks;
+
+import com.iprody.payment.service.app.dto.PaymentDto;
+import com.iprody.payment.service.app.mapper.PaymentMapper;
+import com.iprody.payment.service.app.mapper.XPaymentAdapterMapper;
+import com.iprody.payment.service.app.persistence.entity.Payment;
+import com.iprody.payment.service.app.persistence.entity.PaymentOutbox;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final PaymentMapper paymentMapper = Mappers.getMapper(PaymentMapper.class);
+    private final XPaymentAdapterMapper xPaymentAdapterMapper = Mappers.getMapper(XPaymentAdapterMapper.class);
+
+    private Payment payment;
+    private PaymentDto paymentDto;
+    private PaymentOutbox outbox;
+
+    @Setup
+    public void setUp() {
+        payment = Fixtures.payment();
+        paymentDto = paymentMapper.toDto(payment);
+        outbox = xPaymentAdapterMapper.toOutbox(payment);
+    }
+
+    @Benchmark
+    public PaymentDto paymentToDto() {
+        return paymentMapper.toDto(payment);
+    }
+
+    @Benchmark
+    public Payment dtoToPayment() {
+        return paymentMapper.toEntity(paymentDto);
+    }
+
+    @Benchmark
+    public XPaymentAdapterRequestMessage paymentToRequestMessage() {
+        return xPaymentAdapterMapper.toXPaymentAdapterRequestMessage(payment);
+    }
+
+    @Benchmark
+    public PaymentOutbox paymentToOutbox() {
+        return xPaymentAdapterMapper.toOutbox(payment);
+    }
+
+    @Benchmark
+    public XPaymentAdapterRequestMessage outboxToRequestMessage() {
+        return xPaymentAdapterMapper.toXPaymentAdapterRequestMessage(outbox);
+    }
+}
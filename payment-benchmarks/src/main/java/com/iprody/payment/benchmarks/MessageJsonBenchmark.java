@@ -0,0 +1,83 @@
+package com.iprody.payment.benchmarks;
+
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the Kafka messages in the direction they actually travel: requests are written
+ * by payment-service and read by the adapter, responses the other way round. Mirrors the
+ * {@code JsonSerializer}/{@code JsonDeserializer} setup of both apps (no type headers, ISO-8601 dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageJsonBenchmark {
+
+    private ObjectWriter writer;
+    private ObjectReader requestReader;
+    private ObjectReader responseReader;
+
+    private XPaymentAdapterRequestMessage request;
+    private XPaymentAdapterResponseMessage response;
+    private byte[] requestJson;
+    private byte[] responseJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        writer = objectMapper.writer();
+        requestReader = objectMapper.readerFor(XPaymentAdapterRequestMessage.class);
+        responseReader = objectMapper.readerFor(XPaymentAdapterResponseMessage.class);
+
+        request = Fixtures.request(new BigDecimal("125.50"), "USD");
+        response = Fixtures.response(new BigDecimal("125.50"), "USD");
+        requestJson = writer.writeValueAsBytes(request);
+        responseJson = writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeRequest() throws JsonProcessingException {
+        return writer.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public Object deserializeRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public Object deserializeResponse() throws IOException {
+        return responseReader.readValue(responseJson);
+    }
+}
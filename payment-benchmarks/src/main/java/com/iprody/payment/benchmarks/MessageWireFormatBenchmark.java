@@ -0,0 +1,106 @@
+package com.iprody.payment.benchmarks;
+
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.kafka.XPaymentAdapterMessageSerializer;
+import com.iprody.xpayment.contract.kafka.XPaymentAdapterRequestDeserializer;
+import com.iprody.xpayment.contract.kafka.XPaymentAdapterResponseDeserializer;
+import com.iprody.xpayment.contract.kafka.XPaymentAdapterWireFormat;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The shared Kafka value serdes in the direction the messages travel, JSON against the binary wire format.
+ * Unlike {@link MessageJsonBenchmark} this goes through the configured serializers, including the format header.
+ * The encoded size of each message is printed once per trial as bytes/record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageWireFormatBenchmark {
+
+    private static final String TOPIC = "xpayment-adapter";
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private XPaymentAdapterMessageSerializer serializer;
+    private XPaymentAdapterRequestDeserializer requestDeserializer;
+    private XPaymentAdapterResponseDeserializer responseDeserializer;
+
+    private XPaymentAdapterRequestMessage request;
+    private XPaymentAdapterResponseMessage response;
+    private Headers requestHeaders;
+    private Headers responseHeaders;
+    private byte[] requestBytes;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() {
+        serializer = new XPaymentAdapterMessageSerializer();
+        serializer.configure(Map.of(
+            JsonSerializer.ADD_TYPE_INFO_HEADERS, false,
+            XPaymentAdapterWireFormat.CONFIG, format
+        ), false);
+
+        requestDeserializer = new XPaymentAdapterRequestDeserializer();
+        responseDeserializer = new XPaymentAdapterResponseDeserializer();
+
+        request = Fixtures.request(new BigDecimal("125.50"), "USD");
+        response = Fixtures.response(new BigDecimal("125.50"), "USD");
+        requestHeaders = new RecordHeaders();
+        responseHeaders = new RecordHeaders();
+        requestBytes = serializer.serialize(TOPIC, requestHeaders, request);
+        responseBytes = serializer.serialize(TOPIC, responseHeaders, response);
+
+        System.out.printf("%n%s bytes/record: request=%d, response=%d%n",
+            format, requestBytes.length, responseBytes.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        requestDeserializer.close();
+        responseDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializeRequest() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), request);
+    }
+
+    @Benchmark
+    public Object deserializeRequest() {
+        return requestDeserializer.deserialize(TOPIC, requestHeaders, requestBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), response);
+    }
+
+    @Benchmark
+    public Object deserializeResponse() {
+        return responseDeserializer.deserialize(TOPIC, responseHeaders, responseBytes);
+    }
+}
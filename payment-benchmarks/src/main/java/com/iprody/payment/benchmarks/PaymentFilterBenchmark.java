@@ -0,0 +1,50 @@
+package com.iprody.payment.benchmarks;
+
+import com.iprody.payment.service.app.persistence.PaymentFilter;
+import com.iprody.payment.service.app.persistence.entity.Payment;
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+import com.iprody.payment.service.app.persistency.PaymentFilterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentFilterBenchmark {
+
+    private final PaymentFilter emptyFilter = new PaymentFilter(null, null, null, null, null, null);
+
+    private final PaymentFilter fullFilter = new PaymentFilter(
+        "USD",
+        new BigDecimal("10.00"),
+        new BigDecimal("500.00"),
+        Instant.parse("2026-01-01T00:00:00Z"),
+        Instant.parse("2026-02-01T00:00:00Z"),
+        PaymentStatus.APPROVED
+    );
+
+    @Benchmark
+    public Specification<Payment> emptyFilter() {
+        return PaymentFilterFactory.fromFilter(emptyFilter);
+    }
+
+    @Benchmark
+    public Specification<Payment> fullFilter() {
+        return PaymentFilterFactory.fromFilter(fullFilter);
+    }
+}
@@ -0,0 +1,124 @@
+package com.iprody.payment.benchmarks;
+
+import com.iprody.payment.service.app.PaymentServiceAppApplication;
+import com.iprody.payment.service.app.persistence.entity.Payment;
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+import com.iprody.payment.service.app.persistency.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment inserts per second against a real Postgres container, 100 payments per transaction.
+ * {@code baseline} reproduces the previous write path: {@code merge} with its pre-select and the driver's
+ * default of server-preparing a statement on its fifth use; both paths batch 50 ordered inserts, as before.
+ * {@code tuned} goes through {@link PaymentRepository#saveAll} with the production settings. Kafka listeners
+ * are not started. Needs a Docker daemon; run with {@code java -jar benchmarks.jar PaymentInsert}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(1)
+public class PaymentInsertHarness {
+
+    private static final int BATCH = 100;
+
+    @Param({"baseline", "tuned"})
+    public String writePath;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private PaymentRepository paymentRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("payment-db")
+            .withUsername("admin")
+            .withPassword("secret");
+        postgres.start();
+
+        final boolean tuned = "tuned".equals(writePath);
+        context = new SpringApplicationBuilder(PaymentServiceAppApplication.class)
+            .properties(
+                "spring.config.location=classpath:/roundtrip-payment-service.yaml",
+                "spring.datasource.url=" + postgres.getJdbcUrl(),
+                "spring.datasource.username=" + postgres.getUsername(),
+                "spring.datasource.password=" + postgres.getPassword(),
+                "spring.kafka.listener.auto-startup=false",
+                "app.outbox.relay.poll-interval-ms=3600000",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "spring.jpa.properties.hibernate.order_inserts=true",
+                "spring.datasource.hikari.data-source-properties.prepareThreshold=" + (tuned ? 1 : 5)
+            )
+            .run();
+
+        paymentRepository = context.getBean(PaymentRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+            context.getBean(EntityManagerFactory.class));
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        postgres.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insert() {
+        final List<Payment> payments = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            payments.add(payment());
+        }
+
+        if ("tuned".equals(writePath)) {
+            transactionTemplate.executeWithoutResult(status -> paymentRepository.saveAll(payments));
+        } else {
+            transactionTemplate.executeWithoutResult(status -> payments.forEach(entityManager::merge));
+        }
+    }
+
+    private static Payment payment() {
+        final Payment payment = new Payment();
+        payment.setGuid(UUID.randomUUID());
+        payment.setInquiryRefId(UUID.randomUUID());
+        payment.setAmount(new BigDecimal("10.00"));
+        payment.setCurrency("USD");
+        payment.setStatus(PaymentStatus.RECEIVED);
+        return payment;
+    }
+}
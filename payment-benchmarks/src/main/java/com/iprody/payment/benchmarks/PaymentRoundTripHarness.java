@@ -0,0 +1,124 @@
+package com.iprody.payment.benchmarks;
+
+import com.iprody.payment.service.app.PaymentServiceAppApplication;
+import com.iprody.payment.service.app.dto.PaymentDto;
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+import com.iprody.payment.service.app.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.kafka.KafkaContainer;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end create-to-response throughput against real Postgres and Kafka containers: each invocation creates
+ * a payment through {@link PaymentService} and waits until the response from {@link StubXPaymentAdapter} has
+ * moved it to {@code APPROVED}. Covers the outbox relay, both Kafka hops and the response listener in
+ * record and batch mode. Needs a Docker daemon; run with {@code java -jar benchmarks.jar RoundTrip}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(32)
+@Fork(1)
+public class PaymentRoundTripHarness {
+
+    private static final String REQUEST_TOPIC = "xpayment-adapter.requests";
+    private static final String RESPONSE_TOPIC = "xpayment-adapter.responses";
+    private static final long ROUND_TRIP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Param({"false", "true"})
+    public String batchListener;
+
+    private PostgreSQLContainer<?> postgres;
+    private KafkaContainer kafka;
+    private StubXPaymentAdapter adapter;
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("payment-db")
+            .withUsername("admin")
+            .withPassword("secret");
+        kafka = new KafkaContainer("apache/kafka:3.8.0");
+        postgres.start();
+        kafka.start();
+
+        adapter = new StubXPaymentAdapter(kafka.getBootstrapServers(), REQUEST_TOPIC, RESPONSE_TOPIC);
+        adapter.start();
+
+        context = new SpringApplicationBuilder(PaymentServiceAppApplication.class)
+            .properties(
+                "spring.config.location=classpath:/roundtrip-payment-service.yaml",
+                "spring.datasource.url=" + postgres.getJdbcUrl(),
+                "spring.datasource.username=" + postgres.getUsername(),
+                "spring.datasource.password=" + postgres.getPassword(),
+                "spring.kafka.bootstrap-servers=" + kafka.getBootstrapServers(),
+                "app.kafka.listener.response.batch-enabled=" + batchListener
+            )
+            .run();
+        paymentService = context.getBean(PaymentService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (context != null) {
+            context.close();
+        }
+        if (adapter != null) {
+            adapter.close();
+        }
+        kafka.stop();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public void createToResponse() {
+        final UUID guid = UUID.randomUUID();
+        paymentService.create(PaymentDto.builder()
+            .guid(guid)
+            .inquiryRefId(UUID.randomUUID())
+            .amount(new BigDecimal("10.00"))
+            .currency("USD")
+            .status(PaymentStatus.RECEIVED)
+            .build());
+
+        final long deadline = System.nanoTime() + ROUND_TRIP_TIMEOUT_NANOS;
+        while (!PaymentStatus.APPROVED.name().equals(statusOf(guid))) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No adapter response for payment " + guid);
+            }
+            LockSupport.parkNanos(POLL_INTERVAL_NANOS);
+        }
+    }
+
+    private String statusOf(UUID guid) {
+        return jdbcTemplate.queryForObject("SELECT status FROM payment WHERE guid = ?", String.class, guid);
+    }
+}
@@ -0,0 +1,97 @@
+package com.iprody.payment.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stands in for xpayment-adapter in the round-trip harness: answers every request on the request topic with a
+ * {@code SUCCEEDED} response, so the measured path is payment-service plus the broker, not the provider.
+ */
+final class StubXPaymentAdapter implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final KafkaConsumer<String, String> consumer;
+    private final KafkaProducer<String, String> producer;
+    private final String responseTopic;
+    private final Thread worker;
+
+    StubXPaymentAdapter(String bootstrapServers, String requestTopic, String responseTopic) {
+        this.responseTopic = responseTopic;
+        this.consumer = new KafkaConsumer<>(Map.of(
+            ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+            ConsumerConfig.GROUP_ID_CONFIG, "roundtrip-stub-adapter",
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+            ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+            ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class
+        ));
+        this.producer = new KafkaProducer<>(Map.of(
+            ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+            ProducerConfig.LINGER_MS_CONFIG, 5,
+            ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+            ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class
+        ));
+        this.consumer.subscribe(List.of(requestTopic));
+        this.worker = Thread.ofPlatform().name("stub-xpayment-adapter").daemon().unstarted(this::run);
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        consumer.wakeup();
+        worker.join(Duration.ofSeconds(10));
+        producer.close();
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(100))) {
+                    producer.send(new ProducerRecord<>(responseTopic, record.key(), respondTo(record.value())));
+                }
+                consumer.commitAsync();
+            }
+        } catch (WakeupException e) {
+            // closing
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private String respondTo(String requestJson) {
+        try {
+            final JsonNode request = objectMapper.readTree(requestJson);
+            final ObjectNode response = objectMapper.createObjectNode()
+                .put("messageId", UUID.randomUUID().toString())
+                .put("paymentGuid", request.path("paymentId").asText())
+                .put("currency", request.path("currency").asText())
+                .put("transactionRefId", UUID.randomUUID().toString())
+                .put("status", "SUCCEEDED")
+                .put("occurredAt", Instant.now().toString());
+            response.set("amount", request.path("amount"));
+            return objectMapper.writeValueAsString(response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.iprody.payment.benchmarks;
+
+import com.iprody.xpayment.contract.XPaymentAdapterMessageValidator;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link XPaymentAdapterMessageValidator} as used by both Kafka listener adapters, for a valid message,
+ * a scale violation and an unknown currency. {@code check} is the listener hot path; {@code validate} adds the
+ * DLT messages, and {@code baselineValidation} is the former per-app validator built on
+ * {@link Currency#getInstance(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    @Param({"VALID", "SCALE_VIOLATION", "UNKNOWN_CURRENCY"})
+    public String shape;
+
+    private final XPaymentAdapterMessageValidator validator = new XPaymentAdapterMessageValidator();
+
+    private XPaymentAdapterRequestMessage request;
+    private XPaymentAdapterResponseMessage response;
+
+    @Setup
+    public void setUp() {
+        final BigDecimal amount = switch (shape) {
+            case "SCALE_VIOLATION" -> new BigDecimal("10.505");
+            default -> new BigDecimal("10.50");
+        };
+        final String currency = "UNKNOWN_CURRENCY".equals(shape) ? "XYZ" : "USD";
+
+        request = Fixtures.request(amount, currency);
+        response = Fixtures.response(amount, currency);
+    }
+
+    @Benchmark
+    public int requestCheck() {
+        return validator.check(request);
+    }
+
+    @Benchmark
+    public int responseCheck() {
+        return validator.check(response);
+    }
+
+    @Benchmark
+    public List<String> responseValidation() {
+        return validator.validate(response);
+    }
+
+    @Benchmark
+    public List<String> baselineValidation() {
+        return baselineValidate(response);
+    }
+
+    private static List<String> baselineValidate(XPaymentAdapterResponseMessage message) {
+        final List<String> violations = new ArrayList<>();
+
+        if (message.amount() == null) {
+            violations.add("Amount is required");
+        }
+
+        if (message.currency() == null || message.currency().isBlank()) {
+            violations.add("Currency code is required");
+        }
+
+        if (!violations.isEmpty()) {
+            return violations;
+        }
+
+        if (message.amount().compareTo(BigDecimal.ZERO) < 0) {
+            violations.add("Amount must not be negative: " + message.amount());
+        }
+
+        try {
+            final Currency currency = Currency.getInstance(message.currency());
+            final int allowedFractionDigits = currency.getDefaultFractionDigits();
+
+            if (allowedFractionDigits >= 0 && message.amount().scale() > allowedFractionDigits) {
+                violations.add(String.format(
+                    "Amount scale %d exceeds allowed %d fraction digits for currency %s (ISO 4217)",
+                    message.amount().scale(), allowedFractionDigits, message.currency()
+                ));
+            }
+        } catch (IllegalArgumentException e) {
+            violations.add("Unknown currency code: " + message.currency());
+        }
+
+        return violations;
+    }
+}
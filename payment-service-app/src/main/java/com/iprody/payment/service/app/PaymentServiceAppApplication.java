@@ -2,8 +2,17 @@ package com.iprody.payment.service.app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+/**
+ * The cache advice runs outside the transaction advice: cache hits don't open a transaction and
+ * {@code @CachePut} results are only cached once their transaction has committed.
+ */
 @SpringBootApplication
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableScheduling
 public class PaymentServiceAppApplication {
 
     public static void main(String[] args) {
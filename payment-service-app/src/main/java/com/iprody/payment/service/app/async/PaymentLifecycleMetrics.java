@@ -0,0 +1,67 @@
+package com.iprody.payment.service.app.async;
+
+import com.iprody.payment.service.app.persistence.PaymentStateUpdate;
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+import com.iprody.payment.service.app.persistency.PaymentStateUpdateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Records status transitions applied from adapter responses and, for final statuses, the time from payment
+ * creation until payment-service reflects the outcome; this is the series the end-to-end SLO is set on.
+ */
+@Component
+public class PaymentLifecycleMetrics {
+
+    private static final Set<PaymentStatus> FINAL_STATUSES = Set.of(PaymentStatus.APPROVED, PaymentStatus.DECLINED);
+
+    private final PaymentStateUpdateRepository paymentStateUpdateRepository;
+    private final MeterRegistry meterRegistry;
+
+    public PaymentLifecycleMetrics(
+        PaymentStateUpdateRepository paymentStateUpdateRepository,
+        MeterRegistry meterRegistry
+    ) {
+        this.paymentStateUpdateRepository = paymentStateUpdateRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordApplied(List<PaymentStateUpdate> applied) {
+        applied.forEach(update -> Counter.builder("payment.status.transitions")
+            .description("Payment status changes applied from XPayment Adapter responses")
+            .tag("status", update.status().name())
+            .register(meterRegistry)
+            .increment());
+
+        final List<PaymentStateUpdate> completed = applied.stream()
+            .filter(update -> FINAL_STATUSES.contains(update.status()))
+            .toList();
+        if (completed.isEmpty()) {
+            return;
+        }
+
+        final Map<UUID, Instant> createdAt = paymentStateUpdateRepository.findCreatedAt(
+            completed.stream().map(PaymentStateUpdate::paymentGuid).toList());
+        final Instant now = Instant.now();
+        for (PaymentStateUpdate update : completed) {
+            final Instant created = createdAt.get(update.paymentGuid());
+            if (created == null) {
+                continue;
+            }
+            Timer.builder("payment.lifecycle.duration")
+                .description("Time from payment creation to its final status")
+                .tag("status", update.status().name())
+                .register(meterRegistry)
+                .record(Duration.between(created, now));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.iprody.payment.service.app.async;
+
+import com.iprody.payment.service.app.persistency.PaymentStateUpdateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Trims the {@code processed_message} dedup table. The retention only has to outlive the window in which
+ * Kafka can redeliver a response.
+ */
+@Component
+public class ProcessedMessageCleanup {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessedMessageCleanup.class);
+
+    private final PaymentStateUpdateRepository paymentStateUpdateRepository;
+    private final Duration retention;
+
+    public ProcessedMessageCleanup(
+        PaymentStateUpdateRepository paymentStateUpdateRepository,
+        @Value("${app.kafka.listener.response.dedup-retention:P7D}") Duration retention
+    ) {
+        this.paymentStateUpdateRepository = paymentStateUpdateRepository;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka.listener.response.dedup-cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        final int deleted = paymentStateUpdateRepository.deleteProcessedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Removed {} processed message ids older than {}", deleted, retention);
+        }
+    }
+}
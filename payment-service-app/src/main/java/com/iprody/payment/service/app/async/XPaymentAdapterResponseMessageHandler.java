@@ -2,29 +2,129 @@ package com.iprody.payment.service.app.async;
 
 import com.iprody.payment.service.app.exception.EntityNotFoundException;
 import com.iprody.payment.service.app.exception.Operation;
+import com.iprody.payment.service.app.persistence.PaymentStateUpdate;
 import com.iprody.payment.service.app.persistence.entity.Payment;
 import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
 import com.iprody.payment.service.app.persistency.PaymentRepository;
+import com.iprody.payment.service.app.persistency.PaymentStateUpdateRepository;
+import com.iprody.payment.service.app.service.PaymentCache;
+import com.iprody.xpayment.contract.MessageHandler;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Applies XPayment Adapter responses idempotently. Messages whose {@code messageId} was already processed are
+ * dropped, and a response only overwrites a payment if its {@code occurredAt} is newer than the last applied one,
+ * so redelivered or reordered messages can't move a payment back to an earlier state.
+ */
 @Service
 @RequiredArgsConstructor
 public class XPaymentAdapterResponseMessageHandler implements MessageHandler<XPaymentAdapterResponseMessage> {
 
+    private static final Logger log = LoggerFactory.getLogger(XPaymentAdapterResponseMessageHandler.class);
+
     private final PaymentRepository paymentRepository;
+    private final PaymentStateUpdateRepository paymentStateUpdateRepository;
+    private final PaymentCache paymentCache;
+    private final PaymentLifecycleMetrics paymentLifecycleMetrics;
 
     @Override
+    @Transactional
     public void handle(XPaymentAdapterResponseMessage message) {
-        final Payment payment = paymentRepository.findById(message.getPaymentGuid())
-            .orElseThrow(() -> new EntityNotFoundException("Payment not found for given id",
-            Operation.UPDATE_OP, message.getPaymentGuid()));
+        handleAll(List.of(message));
+    }
+
+    @Override
+    @Transactional
+    public void handleAll(List<XPaymentAdapterResponseMessage> messages) {
+        final List<PaymentStateUpdate> updates = deduplicate(messages.stream().map(this::toUpdate).toList());
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        final boolean[] applied = paymentStateUpdateRepository.applyIfNewer(updates);
 
-        payment.setAmount(message.getAmount());
-        payment.setCurrency(message.getCurrency());
-        payment.setTransactionRefId(message.getTransactionRefId());
-        payment.setStatus(mapStatus(message.getStatus()));
+        final Set<UUID> notApplied = new HashSet<>();
+        final List<PaymentStateUpdate> appliedUpdates = new ArrayList<>(updates.size());
+        for (int i = 0; i < applied.length; i++) {
+            if (applied[i]) {
+                appliedUpdates.add(updates.get(i));
+            } else {
+                notApplied.add(updates.get(i).paymentGuid());
+            }
+        }
+        if (!notApplied.isEmpty()) {
+            final Set<UUID> existing = paymentRepository.findAllById(notApplied).stream()
+                .map(Payment::getGuid)
+                .collect(Collectors.toSet());
+            for (UUID paymentGuid : notApplied) {
+                if (!existing.contains(paymentGuid)) {
+                    throw notFound(paymentGuid);
+                }
+            }
+            log.debug("Ignored {} stale XPayment Adapter responses for payments {}", notApplied.size(), notApplied);
+        }
+
+        paymentLifecycleMetrics.recordApplied(appliedUpdates);
+        paymentCache.evict(updates.stream().map(PaymentStateUpdate::paymentGuid).collect(Collectors.toSet()));
+    }
+
+    private List<PaymentStateUpdate> deduplicate(List<PaymentStateUpdate> updates) {
+        final List<PaymentStateUpdate> result = new ArrayList<>(updates.size());
+        final Map<UUID, PaymentStateUpdate> identified = new LinkedHashMap<>();
+        for (PaymentStateUpdate update : updates) {
+            if (update.messageId() == null) {
+                result.add(update);
+            } else {
+                identified.putIfAbsent(update.messageId(), update);
+            }
+        }
+        if (identified.isEmpty()) {
+            return result;
+        }
+
+        final List<PaymentStateUpdate> candidates = List.copyOf(identified.values());
+        final boolean[] firstSeen = paymentStateUpdateRepository.markProcessed(candidates);
+        for (int i = 0; i < candidates.size(); i++) {
+            if (firstSeen[i]) {
+                result.add(candidates.get(i));
+            } else {
+                log.debug("Skipping already processed XPayment Adapter response messageId={}",
+                    candidates.get(i).messageId());
+            }
+        }
+        return result;
+    }
+
+    private PaymentStateUpdate toUpdate(XPaymentAdapterResponseMessage message) {
+        return new PaymentStateUpdate(
+            message.messageId(),
+            message.paymentGuid(),
+            message.amount(),
+            message.currency(),
+            message.transactionRefId(),
+            mapStatus(message.status()),
+            message.occurredAt() != null ? message.occurredAt() : Instant.now()
+        );
+    }
 
-        paymentRepository.save(payment);
+    private EntityNotFoundException notFound(UUID paymentGuid) {
+        return new EntityNotFoundException("Payment not found for given id", Operation.UPDATE_OP, paymentGuid);
     }
 
     private PaymentStatus mapStatus(XPaymentAdapterStatus adapterStatus) {
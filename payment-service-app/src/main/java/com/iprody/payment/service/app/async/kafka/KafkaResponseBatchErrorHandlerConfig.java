@@ -0,0 +1,46 @@
+package com.iprody.payment.service.app.async.kafka;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+/**
+ * Error handling for the batch listener, which retry topics don't support. The listener reports the failing
+ * record through {@link org.springframework.kafka.listener.BatchListenerFailedException}: the records before it
+ * are committed, the rest of the batch is redelivered and the failing record is retried with the same backoff as
+ * the retry topics. Once the attempts are exhausted it goes to {@code <response>.dlt} with the original headers.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.kafka.listener.response.batch-enabled", havingValue = "true")
+class KafkaResponseBatchErrorHandlerConfig {
+
+    @Bean
+    DefaultErrorHandler responseBatchErrorHandler(
+        KafkaTemplate<String, Object> template,
+        ResponseListenerMetrics metrics,
+        @Value("${app.kafka.topics.xpayment-adapter.response-dlt}") String deadLetterTopic,
+        @Value("${app.kafka.listener.response.retry.attempts:4}") int attempts,
+        @Value("${app.kafka.listener.response.retry.initial-delay-ms:1000}") long initialDelayMs,
+        @Value("${app.kafka.listener.response.retry.multiplier:5}") double multiplier,
+        @Value("${app.kafka.listener.response.retry.max-delay-ms:60000}") long maxDelayMs
+    ) {
+        final DeadLetterPublishingRecoverer deadLetter =
+            new DeadLetterPublishingRecoverer(template, (record, e) -> new TopicPartition(deadLetterTopic, -1));
+
+        final ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(attempts - 1);
+        backOff.setInitialInterval(initialDelayMs);
+        backOff.setMultiplier(multiplier);
+        backOff.setMaxInterval(maxDelayMs);
+
+        return new DefaultErrorHandler((record, e) -> {
+            metrics.recordDeadLettered("batch", "retries-exhausted");
+            deadLetter.accept(record, e);
+        }, backOff);
+    }
+}
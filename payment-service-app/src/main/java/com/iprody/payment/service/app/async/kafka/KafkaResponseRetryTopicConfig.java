@@ -0,0 +1,43 @@
+package com.iprody.payment.service.app.async.kafka;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+
+/**
+ * Retry pipeline for the record listener: a failed response is republished to
+ * {@code <response>.retry-<delay>} topics with exponential backoff and, after the last attempt, to
+ * {@code <response>.dlt}. Deserialization failures skip the retry topics. Batch listeners aren't supported by
+ * retry topics, so batch mode keeps its in-place redelivery.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.kafka.listener.response.batch-enabled", havingValue = "false", matchIfMissing = true)
+class KafkaResponseRetryTopicConfig {
+
+    @Bean
+    RetryTopicConfiguration responseRetryTopicConfiguration(
+        KafkaTemplate<String, Object> template,
+        @Value("${app.kafka.topics.xpayment-adapter.response}") String responseTopic,
+        @Value("${app.kafka.listener.response.retry.attempts:4}") int attempts,
+        @Value("${app.kafka.listener.response.retry.initial-delay-ms:1000}") long initialDelayMs,
+        @Value("${app.kafka.listener.response.retry.multiplier:5}") double multiplier,
+        @Value("${app.kafka.listener.response.retry.max-delay-ms:60000}") long maxDelayMs,
+        @Value("${app.kafka.listener.response.retry.partitions:6}") int partitions,
+        @Value("${app.kafka.listener.response.retry.replication-factor:1}") short replicationFactor
+    ) {
+        return RetryTopicConfigurationBuilder.newInstance()
+            .maxAttempts(attempts)
+            .exponentialBackoff(initialDelayMs, multiplier, maxDelayMs)
+            .retryTopicSuffix(".retry")
+            .dltSuffix(".dlt")
+            .includeTopic(responseTopic)
+            .autoCreateTopicsWith(partitions, replicationFactor)
+            .dltHandlerMethod("kafkaXPaymentAdapterResultListenerAdapter", "onDeadLetter")
+            .doNotRetryOnDltFailure()
+            .create(template);
+    }
+}
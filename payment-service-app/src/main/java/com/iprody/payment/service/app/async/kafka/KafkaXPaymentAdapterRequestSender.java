@@ -1,36 +1,134 @@
 package com.iprody.payment.service.app.async.kafka;
 
-import com.iprody.payment.service.app.async.AsyncSender;
-import com.iprody.payment.service.app.async.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.AsyncSender;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
 import org.springframework.beans.factory.annotation.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends XPayment Adapter requests without blocking on the broker. Every send gets a completion callback that
+ * records ack latency and failures; callers that need the outcome use the futures returned by
+ * {@link #sendAll(List)}. The producer's free buffer is exposed as a saturation signal, so the outbox relay can
+ * stop draining before {@code send} starts blocking on {@code max.block.ms}.
+ */
 @Service
 public class KafkaXPaymentAdapterRequestSender implements AsyncSender<XPaymentAdapterRequestMessage> {
     private static final Logger log = LoggerFactory.getLogger(KafkaXPaymentAdapterRequestSender.class);
+    private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
+
     private final KafkaTemplate<String, XPaymentAdapterRequestMessage> template;
     private final String topic;
+    private final double saturationThreshold;
+
+    private final Timer ackTimer;
+    private final Counter failedCounter;
 
     public KafkaXPaymentAdapterRequestSender(
         KafkaTemplate<String, XPaymentAdapterRequestMessage> template,
+        MeterRegistry meterRegistry,
         @Value("${app.kafka.topics.xpayment-adapter.request:xpayment-adapter.requests}")
-        String topic
+        String topic,
+        @Value("${app.kafka.producer.saturation-threshold:0.9}") double saturationThreshold
     ) {
         this.template = template;
         this.topic = topic;
+        this.saturationThreshold = saturationThreshold;
+
+        this.ackTimer = Timer.builder("payment.kafka.send")
+            .description("Time from handing a request to the producer until the broker acknowledged it")
+            .tag("topic", topic)
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("payment.kafka.send.failed")
+            .description("Requests the producer failed to deliver")
+            .tag("topic", topic)
+            .register(meterRegistry);
+        Gauge.builder("payment.kafka.producer.buffer.utilization", this,
+                KafkaXPaymentAdapterRequestSender::bufferUtilization)
+            .description("Share of the producer's buffer.memory currently taken by unsent records")
+            .register(meterRegistry);
     }
 
     @Override
     public void send(XPaymentAdapterRequestMessage msg) {
-        final String key = msg.getPaymentId().toString();
         log.info(
             "Sending XPayment Adapter request: guid={}, amount={}, currency={} -> topic={}",
-            msg.getPaymentId(), msg.getAmount(),
-            msg.getCurrency(), topic
+            msg.paymentId(), msg.amount(),
+            msg.currency(), topic
         );
-        template.send(topic, key, msg);
+        sendAsync(msg);
+    }
+
+    @Override
+    public List<CompletableFuture<Void>> sendAll(List<XPaymentAdapterRequestMessage> messages) {
+        final List<CompletableFuture<Void>> results = new ArrayList<>(messages.size());
+        for (XPaymentAdapterRequestMessage msg : messages) {
+            results.add(sendAsync(msg));
+        }
+        template.flush();
+
+        log.info("Sent batch of {} XPayment Adapter requests -> topic={}", messages.size(), topic);
+        return results;
+    }
+
+    @Override
+    public boolean isSaturated() {
+        return bufferUtilization() >= saturationThreshold;
+    }
+
+    private CompletableFuture<Void> sendAsync(XPaymentAdapterRequestMessage msg) {
+        final long start = System.nanoTime();
+        final CompletableFuture<Void> result;
+        try {
+            result = template.send(topic, msg.paymentId().toString(), msg).thenAccept(sent -> { });
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.error("Failed to hand XPayment Adapter request to the producer: guid={}", msg.paymentId(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return result.whenComplete((ignored, error) -> {
+            if (error == null) {
+                ackTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return;
+            }
+            failedCounter.increment();
+            log.error("Failed to deliver XPayment Adapter request: guid={} -> topic={}",
+                msg.paymentId(), topic, error);
+        });
+    }
+
+    private double bufferUtilization() {
+        double available = -1;
+        double total = -1;
+        for (Map.Entry<MetricName, ? extends Metric> entry : template.metrics().entrySet()) {
+            final MetricName name = entry.getKey();
+            if (!PRODUCER_METRICS_GROUP.equals(name.group())) {
+                continue;
+            }
+            if ("buffer-available-bytes".equals(name.name())) {
+                available = ((Number) entry.getValue().metricValue()).doubleValue();
+            } else if ("buffer-total-bytes".equals(name.name())) {
+                total = ((Number) entry.getValue().metricValue()).doubleValue();
+            }
+        }
+        if (available < 0 || total <= 0) {
+            return 0;
+        }
+        return 1 - available / total;
     }
 }
@@ -0,0 +1,181 @@
+package com.iprody.payment.service.app.async.kafka;
+
+import com.iprody.xpayment.contract.AsyncListener;
+import com.iprody.xpayment.contract.MessageHandler;
+import com.iprody.xpayment.contract.XPaymentAdapterMessageValidator;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batch counterpart of {@link KafkaXPaymentAdapterResultListenerAdapter}: validates the whole poll and
+ * applies the valid records in a single transaction before acknowledging the batch. Invalid records, and records
+ * that failed to deserialize as raw bytes, are forwarded to the DLT once that transaction has committed. When the
+ * transaction fails the records are applied one by one to find the failing one, which is retried and eventually
+ * dead-lettered by the error handler from {@link KafkaResponseBatchErrorHandlerConfig}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.kafka.listener.response.batch-enabled", havingValue = "true")
+public class KafkaXPaymentAdapterResultBatchListenerAdapter implements AsyncListener<XPaymentAdapterResponseMessage> {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaXPaymentAdapterResultBatchListenerAdapter.class);
+    private static final LogAccessor LOG_ACCESSOR =
+        new LogAccessor(KafkaXPaymentAdapterResultBatchListenerAdapter.class);
+
+    private final MessageHandler<XPaymentAdapterResponseMessage> handler;
+    private final KafkaTemplate<String, Object> template;
+    private final XPaymentAdapterMessageValidator validator;
+    private final ResponseListenerMetrics metrics;
+
+    @Value("${app.kafka.topics.xpayment-adapter.response-dlt}")
+    private String deadLetterTopic;
+
+    @Override
+    public void onMessage(XPaymentAdapterResponseMessage message) {
+        handler.handle(message);
+    }
+
+    @KafkaListener(
+        topics = "${app.kafka.topics.xpayment-adapter.response}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        concurrency = "${app.kafka.listener.response.concurrency:1}",
+        batch = "true"
+    )
+    public void consume(
+        List<ConsumerRecord<String, XPaymentAdapterResponseMessage>> records,
+        Acknowledgment ack
+    ) {
+        log.info(
+            "Received batch of {} XPayment Adapter responses, first partition={}, offset={}",
+            records.size(), records.getFirst().partition(), records.getFirst().offset()
+        );
+
+        final List<XPaymentAdapterResponseMessage> valid = new ArrayList<>(records.size());
+        final List<ConsumerRecord<String, XPaymentAdapterResponseMessage>> rejected = new ArrayList<>();
+        for (ConsumerRecord<String, XPaymentAdapterResponseMessage> record : records) {
+            metrics.recordConsumed("batch", record);
+            final XPaymentAdapterResponseMessage message = record.value();
+            if (message == null) {
+                rejected.add(record);
+                continue;
+            }
+            final int violations = validator.check(message);
+            if (violations == 0) {
+                valid.add(message);
+                continue;
+            }
+
+            log.warn(
+                "Validation failed for paymentGuid={}, sending to DLT. Violations: {}",
+                message.paymentGuid(), validator.describe(message, violations)
+            );
+            rejected.add(record);
+        }
+
+        if (!valid.isEmpty()) {
+            try {
+                handler.handleAll(valid);
+            } catch (RuntimeException e) {
+                log.warn(
+                    "Error handling batch of {} XPayment Adapter responses, applying them one by one",
+                    valid.size(), e
+                );
+                applyOneByOne(records, rejected);
+                ack.acknowledge();
+                return;
+            }
+        }
+
+        deadLetter(rejected);
+        ack.acknowledge();
+    }
+
+    /**
+     * Applies or dead-letters the records in order until one fails, and reports its index so the error handler
+     * commits the records before it and retries from it.
+     */
+    private void applyOneByOne(
+        List<ConsumerRecord<String, XPaymentAdapterResponseMessage>> records,
+        List<ConsumerRecord<String, XPaymentAdapterResponseMessage>> rejected
+    ) {
+        for (int i = 0; i < records.size(); i++) {
+            final ConsumerRecord<String, XPaymentAdapterResponseMessage> record = records.get(i);
+            if (rejected.contains(record)) {
+                deadLetter(List.of(record));
+                continue;
+            }
+            try {
+                onMessage(record.value());
+            } catch (RuntimeException e) {
+                log.error(
+                    "Error handling XPayment Adapter response at partition={}, offset={}",
+                    record.partition(), record.offset(), e
+                );
+                throw new BatchListenerFailedException("Failed to handle XPayment Adapter response", e, i);
+            }
+        }
+    }
+
+    /**
+     * Runs once the valid part of the batch has been committed, so a redelivered batch doesn't dead-letter its
+     * rejected records twice. Waits for the sends: a failed one fails the batch before it is acknowledged.
+     */
+    private void deadLetter(List<ConsumerRecord<String, XPaymentAdapterResponseMessage>> rejected) {
+        final List<CompletableFuture<?>> sends = new ArrayList<>(rejected.size());
+        for (ConsumerRecord<String, XPaymentAdapterResponseMessage> record : rejected) {
+            if (record.value() != null) {
+                sends.add(template.send(
+                    deadLetterRecord(record, String.valueOf(record.value().paymentGuid()), record.value())));
+                metrics.recordDeadLettered("batch", "validation");
+                continue;
+            }
+
+            final DeserializationException failure = SerializationUtils.getExceptionFromHeader(
+                record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+            if (failure == null) {
+                log.warn("Skipping empty record at partition={}, offset={}", record.partition(), record.offset());
+                continue;
+            }
+            log.warn(
+                "Could not deserialize record at partition={}, offset={}, sending to DLT",
+                record.partition(), record.offset(), failure
+            );
+            sends.add(template.send(deadLetterRecord(record, record.key(), failure.getData())));
+            metrics.recordDeadLettered("batch", "deserialization");
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Keeps the original record's headers, except the serialized deserialization failure: its raw bytes become
+     * the DLT record's value.
+     */
+    private ProducerRecord<String, Object> deadLetterRecord(
+        ConsumerRecord<String, ?> record,
+        String key,
+        Object value
+    ) {
+        final RecordHeaders headers = new RecordHeaders(record.headers().toArray());
+        headers.remove(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER);
+        return new ProducerRecord<>(deadLetterTopic, null, key, value, headers);
+    }
+}
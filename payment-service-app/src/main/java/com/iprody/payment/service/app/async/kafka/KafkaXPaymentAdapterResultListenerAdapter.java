@@ -1,31 +1,41 @@
 package com.iprody.payment.service.app.async.kafka;
 
-import com.iprody.payment.service.app.async.AsyncListener;
-import com.iprody.payment.service.app.async.MessageHandler;
-import com.iprody.payment.service.app.async.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.AsyncListener;
+import com.iprody.xpayment.contract.MessageHandler;
+import com.iprody.xpayment.contract.XPaymentAdapterMessageValidator;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.util.Currency;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * Handles responses one record at a time. A record whose handling fails is passed on to the delayed retry topics
+ * set up by {@link KafkaResponseRetryTopicConfig} and, once those are exhausted, to the DLT, so the partition
+ * keeps moving while the record is retried.
+ */
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.kafka.listener.response.batch-enabled", havingValue = "false", matchIfMissing = true)
 public class KafkaXPaymentAdapterResultListenerAdapter implements AsyncListener<XPaymentAdapterResponseMessage> {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaXPaymentAdapterResultListenerAdapter.class);
 
     private final MessageHandler<XPaymentAdapterResponseMessage> handler;
     private final KafkaTemplate<String, XPaymentAdapterResponseMessage> template;
+    private final XPaymentAdapterMessageValidator validator;
+    private final ResponseListenerMetrics metrics;
 
     @Value("${app.kafka.topics.xpayment-adapter.response-dlt}")
     private String deadLetterTopic;
@@ -37,27 +47,31 @@ public class KafkaXPaymentAdapterResultListenerAdapter implements AsyncListener<
 
     @KafkaListener(
         topics = "${app.kafka.topics.xpayment-adapter.response}",
-        groupId = "${spring.kafka.consumer.group-id}"
+        groupId = "${spring.kafka.consumer.group-id}",
+        concurrency = "${app.kafka.listener.response.concurrency:1}"
     )
     public void consume(
         XPaymentAdapterResponseMessage message,
         ConsumerRecord<String, XPaymentAdapterResponseMessage> record,
         Acknowledgment ack
     ) {
+        metrics.recordConsumed("record", record);
         try {
             log.info(
                 "Received XPayment Adapter response: paymentGuid={}, status={}, partition={}, offset={}",
-                message.getPaymentGuid(), message.getStatus(),
+                message.paymentGuid(), message.status(),
                 record.partition(), record.offset()
             );
 
-            final List<String> violations = validate(message);
-            if (!violations.isEmpty()) {
+            final int violations = validator.check(message);
+            if (violations != 0) {
                 log.warn(
                     "Validation failed for paymentGuid={}, sending to DLT. Violations: {}",
-                    message.getPaymentGuid(), violations
+                    message.paymentGuid(), validator.describe(message, violations)
                 );
-                template.send(deadLetterTopic, String.valueOf(message.getPaymentGuid()), message);
+                template.send(new ProducerRecord<>(
+                    deadLetterTopic, null, String.valueOf(message.paymentGuid()), message, record.headers()));
+                metrics.recordDeadLettered("record", "validation");
                 ack.acknowledge();
                 return;
             }
@@ -66,46 +80,28 @@ public class KafkaXPaymentAdapterResultListenerAdapter implements AsyncListener<
             ack.acknowledge();
         } catch (Exception e) {
             log.error(
-                "Error handling XPayment Adapter response for paymentGuid={}",
-                message.getPaymentGuid(), e
+                "Error handling XPayment Adapter response for paymentGuid={}, topic={}",
+                message.paymentGuid(), record.topic(), e
             );
+            metrics.recordRetry(record.topic(), e);
             throw e;
         }
     }
 
-    private List<String> validate(XPaymentAdapterResponseMessage message) {
-        final List<String> violations = new ArrayList<>();
-
-        if (message.getAmount() == null) {
-            violations.add("Amount is required");
-        }
-
-        if (message.getCurrency() == null || message.getCurrency().isBlank()) {
-            violations.add("Currency code is required");
-        }
-
-        if (!violations.isEmpty()) {
-            return violations;
-        }
-
-        if (message.getAmount().compareTo(BigDecimal.ZERO) < 0) {
-            violations.add("Amount must not be negative: " + message.getAmount());
-        }
-
-        try {
-            final Currency currency = Currency.getInstance(message.getCurrency());
-            final int allowedFractionDigits = currency.getDefaultFractionDigits();
-
-            if (allowedFractionDigits >= 0 && message.getAmount().scale() > allowedFractionDigits) {
-                violations.add(String.format(
-                    "Amount scale %d exceeds allowed %d fraction digits for currency %s (ISO 4217)",
-                    message.getAmount().scale(), allowedFractionDigits, message.getCurrency()
-                ));
-            }
-        } catch (IllegalArgumentException e) {
-            violations.add("Unknown currency code: " + message.getCurrency());
+    /**
+     * Terminal step of the retry pipeline. Responses the listener itself sent to the DLT after failed validation
+     * carry no exception header and are already counted.
+     */
+    public void onDeadLetter(ConsumerRecord<String, XPaymentAdapterResponseMessage> record, Acknowledgment ack) {
+        final Header exception = record.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_FQCN);
+        if (exception != null) {
+            final String exceptionClass = new String(exception.value(), StandardCharsets.UTF_8);
+            log.error(
+                "Retries exhausted for XPayment Adapter response paymentGuid={}, last failure: {}",
+                record.value() == null ? null : record.value().paymentGuid(), exceptionClass
+            );
+            metrics.recordDeadLettered("record", "retries-exhausted");
         }
-
-        return violations;
+        ack.acknowledge();
     }
 }
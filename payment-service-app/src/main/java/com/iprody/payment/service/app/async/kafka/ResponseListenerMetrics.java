@@ -0,0 +1,51 @@
+package com.iprody.payment.service.app.async.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Meters shared by the record and batch response listeners. Offset lag per partition is already published by
+ * the Kafka client metrics; this adds the time lag between producing and consuming a response, the failed
+ * attempts forwarded to the retry topics and the rate of responses routed to the DLT.
+ */
+@Component
+public class ResponseListenerMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseListenerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordConsumed(String listener, ConsumerRecord<?, ?> record) {
+        final long lagMs = Math.max(0, System.currentTimeMillis() - record.timestamp());
+        Timer.builder("payment.response.consume.lag")
+            .description("Time between an adapter response being produced and consumed")
+            .tag("listener", listener)
+            .register(meterRegistry)
+            .record(Duration.ofMillis(lagMs));
+    }
+
+    public void recordRetry(String topic, Exception failure) {
+        Counter.builder("payment.response.retry")
+            .description("Failed response handling attempts passed on to the next retry topic or the DLT")
+            .tag("topic", topic)
+            .tag("exception", failure.getClass().getSimpleName())
+            .register(meterRegistry)
+            .increment();
+    }
+
+    public void recordDeadLettered(String listener, String reason) {
+        Counter.builder("payment.response.dead-lettered")
+            .description("Adapter responses routed to the dead-letter topic")
+            .tag("listener", listener)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+}
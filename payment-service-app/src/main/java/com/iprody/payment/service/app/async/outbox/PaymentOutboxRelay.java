@@ -0,0 +1,191 @@
+package com.iprody.payment.service.app.async.outbox;
+
+import com.iprody.payment.service.app.mapper.XPaymentAdapterMapper;
+import com.iprody.payment.service.app.persistence.entity.PaymentOutbox;
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+import com.iprody.payment.service.app.persistency.PaymentOutboxRepository;
+import com.iprody.payment.service.app.persistency.PaymentStateUpdateRepository;
+import com.iprody.payment.service.app.service.PaymentCache;
+import com.iprody.xpayment.contract.AsyncSender;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.errors.SerializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code payment_outbox} to the XPayment Adapter request topic. Rows are locked with
+ * {@code SKIP LOCKED}, published as one producer batch and deleted only once Kafka acknowledged them,
+ * so a failed send is simply picked up again on the next poll. Payments whose request could not be delivered
+ * are shown as {@code NOT_SENT} until a later attempt succeeds. Rows the serializer can't encode would fail
+ * on every poll; they are dropped and their payments left as {@code NOT_SENT}. Draining pauses while the
+ * producer reports a saturated buffer.
+ */
+@Component
+public class PaymentOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentOutboxRelay.class);
+
+    private final PaymentOutboxRepository outboxRepository;
+    private final XPaymentAdapterMapper xPaymentAdapterMapper;
+    private final AsyncSender<XPaymentAdapterRequestMessage> sender;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentStateUpdateRepository paymentStateUpdateRepository;
+    private final PaymentCache paymentCache;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    private final Counter backpressureCounter;
+    private final Timer publishLag;
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+
+    public PaymentOutboxRelay(
+        PaymentOutboxRepository outboxRepository,
+        XPaymentAdapterMapper xPaymentAdapterMapper,
+        AsyncSender<XPaymentAdapterRequestMessage> sender,
+        TransactionTemplate transactionTemplate,
+        PaymentStateUpdateRepository paymentStateUpdateRepository,
+        PaymentCache paymentCache,
+        MeterRegistry meterRegistry,
+        @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+        @Value("${app.outbox.relay.send-timeout-ms:20000}") long sendTimeoutMs
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.xPaymentAdapterMapper = xPaymentAdapterMapper;
+        this.sender = sender;
+        this.transactionTemplate = transactionTemplate;
+        this.paymentStateUpdateRepository = paymentStateUpdateRepository;
+        this.paymentCache = paymentCache;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        this.publishedCounter = Counter.builder("payment.outbox.published")
+            .description("Outbox messages acknowledged by Kafka")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("payment.outbox.failed")
+            .description("Outbox messages that failed to publish and stay queued")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("payment.outbox.rejected")
+            .description("Outbox messages dropped because they can't be serialized")
+            .register(meterRegistry);
+        this.backpressureCounter = Counter.builder("payment.outbox.backpressure")
+            .description("Relay polls skipped because the producer buffer was saturated")
+            .register(meterRegistry);
+        this.publishLag = Timer.builder("payment.outbox.lag")
+            .description("Time between payment creation and Kafka acknowledgement of its request")
+            .register(meterRegistry);
+        Gauge.builder("payment.outbox.oldest.age", oldestPendingAgeMs, AtomicLong::get)
+            .description("Age of the oldest outbox message seen in the last drained batch")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:100}")
+    public void relay() {
+        Integer published;
+        do {
+            if (sender.isSaturated()) {
+                backpressureCounter.increment();
+                log.debug("Producer buffer saturated, postponing outbox relay");
+                return;
+            }
+            published = transactionTemplate.execute(status -> drainBatch());
+        } while (published != null && published == batchSize);
+    }
+
+    int drainBatch() {
+        final List<PaymentOutbox> batch = outboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            oldestPendingAgeMs.set(0);
+            return 0;
+        }
+
+        final Instant now = Instant.now();
+        oldestPendingAgeMs.set(Duration.between(batch.getFirst().getCreatedAt(), now).toMillis());
+
+        final List<XPaymentAdapterRequestMessage> messages = batch.stream()
+            .map(xPaymentAdapterMapper::toXPaymentAdapterRequestMessage)
+            .toList();
+        final List<CompletableFuture<Void>> results = sender.sendAll(messages);
+        // one deadline for the whole batch, so a stalled broker holds the row locks for send-timeout-ms at most
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+
+        final List<UUID> published = new ArrayList<>(batch.size());
+        final List<UUID> rejected = new ArrayList<>();
+        final List<UUID> sentPayments = new ArrayList<>(batch.size());
+        final List<UUID> notSentPayments = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            final PaymentOutbox entry = batch.get(i);
+            try {
+                results.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(entry.getId());
+                sentPayments.add(entry.getPaymentId());
+                publishLag.record(Duration.between(entry.getCreatedAt(), Instant.now()));
+            } catch (ExecutionException e) {
+                notSentPayments.add(entry.getPaymentId());
+                if (e.getCause() instanceof SerializationException) {
+                    rejected.add(entry.getId());
+                    rejectedCounter.increment();
+                    log.error("Dropping outbox message id={}, paymentId={} that can't be serialized",
+                        entry.getId(), entry.getPaymentId(), e.getCause());
+                    continue;
+                }
+                failedCounter.increment();
+                log.warn("Failed to publish outbox message id={}, paymentId={}, will retry",
+                    entry.getId(), entry.getPaymentId(), e);
+            } catch (TimeoutException e) {
+                failedCounter.increment();
+                notSentPayments.add(entry.getPaymentId());
+                log.warn("Failed to publish outbox message id={}, paymentId={}, will retry",
+                    entry.getId(), entry.getPaymentId(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        final List<UUID> done = new ArrayList<>(published);
+        done.addAll(rejected);
+        outboxRepository.deleteAllByIdInBatch(done);
+        publishedCounter.increment(published.size());
+        updateSendStatus(sentPayments, notSentPayments);
+
+        log.debug("Relayed {} of {} outbox messages", published.size(), batch.size());
+        return published.size();
+    }
+
+    private void updateSendStatus(List<UUID> sentPayments, List<UUID> notSentPayments) {
+        final int marked = paymentStateUpdateRepository.transitionStatus(
+            notSentPayments, PaymentStatus.RECEIVED, PaymentStatus.NOT_SENT);
+        final int recovered = paymentStateUpdateRepository.transitionStatus(
+            sentPayments, PaymentStatus.NOT_SENT, PaymentStatus.RECEIVED);
+
+        if (marked > 0) {
+            paymentCache.evict(notSentPayments);
+        }
+        if (recovered > 0) {
+            paymentCache.evict(sentPayments);
+        }
+    }
+}
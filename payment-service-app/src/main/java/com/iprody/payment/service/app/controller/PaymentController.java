@@ -1,8 +1,14 @@
 package com.iprody.payment.service.app.controller;
 
+import com.iprody.payment.service.app.dto.PaymentBatchResultDto;
 import com.iprody.payment.service.app.dto.PaymentDto;
 import com.iprody.payment.service.app.dto.PaymentNoteUpdateDto;
+import com.iprody.payment.service.app.dto.PaymentSliceDto;
 import com.iprody.payment.service.app.dto.PaymentStatusUpdateDto;
+import com.iprody.payment.service.app.exception.InvalidRequestException;
+import com.iprody.payment.service.app.exception.Operation;
+import com.iprody.payment.service.app.export.PaymentExportFormat;
+import com.iprody.payment.service.app.export.PaymentExportService;
 import com.iprody.payment.service.app.persistence.PaymentFilter;
 import com.iprody.payment.service.app.service.PaymentService;
 import jakarta.validation.Valid;
@@ -13,10 +19,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -27,6 +38,7 @@ public class PaymentController {
     private static final Logger log = LoggerFactory.getLogger(PaymentController.class);
 
     private final PaymentService paymentService;
+    private final PaymentExportService paymentExportService;
 
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
@@ -64,6 +76,50 @@ public class PaymentController {
         return result;
     }
 
+    @GetMapping("/search/keyset")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasAnyRole('admin', 'reader')")
+    public PaymentSliceDto searchPaymentsAfter(
+        @ModelAttribute PaymentFilter filter,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "25") int size
+    ) {
+        log.info("SEARCH payments with filter: {}, cursor: {}", filter, cursor);
+
+        final PaymentSliceDto result = paymentService.searchAfter(filter, cursor, size);
+
+        log.debug("Sending response PaymentSliceDto: {}", result);
+        return result;
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('admin', 'reader')")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+        @ModelAttribute PaymentFilter filter,
+        @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        log.info("EXPORT payments as {} with filter: {}", format, filter);
+
+        final PaymentExportFormat exportFormat = parseExportFormat(format);
+        final StreamingResponseBody body = out -> paymentExportService.export(filter, exportFormat, out);
+
+        return ResponseEntity.ok()
+            .contentType(exportFormat.getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("payments." + exportFormat.getExtension())
+                .build()
+                .toString())
+            .body(body);
+    }
+
+    private PaymentExportFormat parseExportFormat(String format) {
+        try {
+            return PaymentExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported export format: " + format, Operation.FIND_ALL_OP, e);
+        }
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @PreAuthorize("hasRole('admin')")
@@ -76,6 +132,19 @@ public class PaymentController {
         return result;
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('admin')")
+    public PaymentBatchResultDto createPayments(@RequestBody List<PaymentDto> dtos) {
+        log.info("CREATE payment batch of {}", dtos.size());
+
+        final PaymentBatchResultDto result = paymentService.createBatch(dtos);
+
+        log.debug("Sending response PaymentBatchResultDto: created={}, rejected={}",
+            result.getCreated(), result.getRejected());
+        return result;
+    }
+
     @PutMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('admin')")
@@ -0,0 +1,32 @@
+package com.iprody.payment.service.app.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the reads of a piece of code on the primary even inside read-only transactions. Meant for results that
+ * outlive the request, such as cache entries: a replica that hasn't replayed the latest write yet would have them
+ * keep the stale row until the next eviction.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> reads) {
+        final Boolean previous = PINNED.get();
+        PINNED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                PINNED.remove();
+            }
+        }
+    }
+
+    static boolean pinned() {
+        return PINNED.get() != null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.iprody.payment.service.app.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Remembers which clients committed a write within the sticky window, keyed by the authenticated principal, so
+ * their reads can be kept on the primary until the replicas have caught up. Work without a principal, such as
+ * the Kafka listeners, is never sticky. The state is local to the instance.
+ */
+class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    ReadYourWritesTracker(long windowMs, long maximumSize) {
+        this.recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(windowMs))
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    /**
+     * Marks the current client as a recent writer once the current transaction commits.
+     */
+    void recordWrite() {
+        final String client = currentClient();
+        if (client == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        });
+    }
+
+    boolean recentlyWrote() {
+        final String client = currentClient();
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+
+    private static String currentClient() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+            || !authentication.isAuthenticated()
+            || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
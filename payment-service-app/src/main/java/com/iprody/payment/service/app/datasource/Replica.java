@@ -0,0 +1,45 @@
+package com.iprody.payment.service.app.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * A read replica's connection pool and the health last reported for it by {@link ReplicaLagMonitor}. A replica
+ * takes no reads until its first lag check has passed.
+ */
+final class Replica {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+
+    private volatile boolean healthy;
+    private volatile long lagMs = -1;
+
+    Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    String name() {
+        return name;
+    }
+
+    HikariDataSource dataSource() {
+        return dataSource;
+    }
+
+    boolean healthy() {
+        return healthy;
+    }
+
+    /**
+     * @return the replay lag seen by the last check, or -1 if the replica couldn't be reached
+     */
+    long lagMs() {
+        return lagMs;
+    }
+
+    void update(long lagMs, boolean healthy) {
+        this.lagMs = lagMs;
+        this.healthy = healthy;
+    }
+}
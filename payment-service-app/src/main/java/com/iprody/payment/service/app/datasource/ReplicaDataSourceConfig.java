@@ -0,0 +1,97 @@
+package com.iprody.payment.service.app.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source with a {@link ReplicaRoutingDataSource} over the primary from
+ * {@code spring.datasource} and the replicas listed in {@code app.datasource.replica.urls}. All pools share the
+ * {@code spring.datasource.hikari} settings; replica pools are read-only and sized separately.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+class ReplicaDataSourceConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    ReadYourWritesTracker readYourWritesTracker(
+        @Value("${app.datasource.replica.sticky-window-ms:5000}") long stickyWindowMs,
+        @Value("${app.datasource.replica.sticky-clients:10000}") long maximumClients
+    ) {
+        return new ReadYourWritesTracker(stickyWindowMs, maximumClients);
+    }
+
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(
+        Environment environment,
+        ReadYourWritesTracker tracker,
+        MeterRegistry meterRegistry,
+        @Value("${spring.datasource.url}") String primaryUrl,
+        @Value("${spring.datasource.username}") String username,
+        @Value("${spring.datasource.password}") String password,
+        @Value("${app.datasource.replica.urls}") List<String> replicaUrls,
+        @Value("${app.datasource.replica.maximum-pool-size:10}") int replicaPoolSize
+    ) {
+        final HikariConfig primaryConfig = poolConfig(environment, meterRegistry, "primary", primaryUrl);
+        primaryConfig.setUsername(username);
+        primaryConfig.setPassword(password);
+
+        final List<Replica> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            final String name = "replica-" + i;
+            final HikariConfig replicaConfig = poolConfig(environment, meterRegistry, name, replicaUrls.get(i));
+            replicaConfig.setUsername(username);
+            replicaConfig.setPassword(password);
+            replicaConfig.setReadOnly(true);
+            replicaConfig.setMaximumPoolSize(replicaPoolSize);
+            replicas.add(new Replica(name, new HikariDataSource(replicaConfig)));
+        }
+
+        return new ReplicaRoutingDataSource(new HikariDataSource(primaryConfig), replicas, tracker, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(
+        ReplicaRoutingDataSource replicaRoutingDataSource,
+        MeterRegistry meterRegistry,
+        @Value("${app.datasource.replica.max-lag-ms:2000}") long maxLagMs
+    ) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, maxLagMs, meterRegistry);
+    }
+
+    private static HikariConfig poolConfig(
+        Environment environment,
+        MeterRegistry meterRegistry,
+        String poolName,
+        String jdbcUrl
+    ) {
+        final HikariConfig config = new HikariConfig();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(config));
+        config.setPoolName(poolName);
+        config.setJdbcUrl(jdbcUrl);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return config;
+    }
+}
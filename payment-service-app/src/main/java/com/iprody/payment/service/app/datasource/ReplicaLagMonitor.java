@@ -0,0 +1,92 @@
+package com.iprody.payment.service.app.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Measures each replica's replay lag and takes it out of the read rotation while the lag exceeds
+ * {@code app.datasource.replica.max-lag-ms}, its WAL receiver isn't streaming or it can't be queried. A streaming
+ * replica that has replayed everything it received counts as lag-free, however long ago the primary last
+ * committed. Reading the receiver status takes a superuser or {@code pg_read_all_stats} role.
+ */
+class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String LAG_QUERY = """
+        SELECT
+            CASE
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END,
+            COALESCE((SELECT status = 'streaming' FROM pg_stat_wal_receiver), false)
+        """;
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final long maxLagMs;
+
+    ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, long maxLagMs, MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagMs = maxLagMs;
+
+        for (Replica replica : routingDataSource.replicas()) {
+            Gauge.builder("payment.datasource.replica.lag", replica, Replica::lagMs)
+                .description("Replay lag of the replica in milliseconds, -1 if it couldn't be reached")
+                .tag("replica", replica.name())
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+            Gauge.builder("payment.datasource.replica.healthy", replica, r -> r.healthy() ? 1 : 0)
+                .description("Whether the replica takes read-only transactions")
+                .tag("replica", replica.name())
+                .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        for (Replica replica : routingDataSource.replicas()) {
+            final boolean wasHealthy = replica.healthy();
+            try {
+                final ReplicaState state = measure(replica);
+                replica.update(state.lagMs(), state.streaming() && state.lagMs() <= maxLagMs);
+                if (wasHealthy && !state.streaming()) {
+                    log.warn("Replica {} isn't streaming from the primary, routing its reads to the primary",
+                        replica.name());
+                }
+            } catch (SQLException e) {
+                replica.update(-1, false);
+                if (wasHealthy) {
+                    log.warn("Replica {} couldn't be checked, routing its reads to the primary", replica.name(), e);
+                }
+            }
+
+            if (wasHealthy != replica.healthy()) {
+                log.info("Replica {} is now {}, lag={}ms",
+                    replica.name(), replica.healthy() ? "healthy" : "unhealthy", replica.lagMs());
+            }
+        }
+    }
+
+    private static ReplicaState measure(Replica replica) throws SQLException {
+        try (Connection connection = replica.dataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            try (ResultSet result = statement.executeQuery(LAG_QUERY)) {
+                result.next();
+                return new ReplicaState(result.getLong(1), result.getBoolean(2));
+            }
+        }
+    }
+
+    private record ReplicaState(long lagMs, boolean streaming) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.iprody.payment.service.app.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions round-robin to the healthy replicas and everything else to the primary. Reads of
+ * a client that wrote within the sticky window stay on the primary, as do reads made through {@link PrimaryReads}
+ * and all reads while no replica is healthy. Stickiness is per principal and per instance: writes made by the Kafka
+ * listeners or on another instance can be missing from replica reads for up to {@code max-lag-ms}.
+ * Has to be wrapped in a {@link LazyConnectionDataSourceProxy}: the transaction's read-only flag is only set after
+ * the transaction manager asked for a connection, so routing must wait until the first statement.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaRoutingDataSource(
+        HikariDataSource primary,
+        List<Replica> replicas,
+        ReadYourWritesTracker tracker,
+        MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.tracker = tracker;
+        this.meterRegistry = meterRegistry;
+
+        final Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.name(), replica.dataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            tracker.recordWrite();
+            return PRIMARY;
+        }
+        if (PrimaryReads.pinned()) {
+            return routed(PRIMARY, "pinned");
+        }
+        if (tracker.recentlyWrote()) {
+            return routed(PRIMARY, "read-your-writes");
+        }
+
+        final Replica replica = nextHealthy();
+        return replica == null
+            ? routed(PRIMARY, "no-healthy-replica")
+            : routed(replica.name(), "read-only");
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource().close());
+        primary.close();
+    }
+
+    private Replica nextHealthy() {
+        final int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            final Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.healthy()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private String routed(String target, String reason) {
+        Counter.builder("payment.datasource.reads")
+            .description("Read-only transactions by the data source they were routed to")
+            .tag("target", target)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+        return target;
+    }
+}
@@ -0,0 +1,21 @@
+package com.iprody.payment.service.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchItemDto {
+    private int index;
+    private UUID guid;
+    private PaymentBatchItemStatus status;
+    private PaymentDto payment;
+    private List<String> errors;
+}
@@ -0,0 +1,6 @@
+package com.iprody.payment.service.app.dto;
+
+public enum PaymentBatchItemStatus {
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,18 @@
+package com.iprody.payment.service.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchResultDto {
+    private int created;
+    private int rejected;
+    private List<PaymentBatchItemDto> items;
+}
@@ -0,0 +1,19 @@
+package com.iprody.payment.service.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentSliceDto {
+    private List<PaymentDto> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -21,6 +21,15 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorDto handleInvalidRequest(InvalidRequestException ex) {
+        return ErrorDto.builder()
+                .errorMessage(ex.getMessage())
+                .operation(ex.getOperation())
+                .build();
+    }
+
     @ExceptionHandler({AccessDeniedException.class, AuthorizationDeniedException.class})
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorDto handleAccessDenied(Exception ex) {
@@ -0,0 +1,21 @@
+package com.iprody.payment.service.app.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+@Getter
+public class InvalidRequestException extends RuntimeException {
+
+    private final Operation operation;
+
+    public InvalidRequestException(String message, Operation operation, Throwable cause) {
+        super(message, cause);
+        this.operation = operation;
+    }
+
+    public InvalidRequestException(String message, Operation operation) {
+        this(message, operation, null);
+    }
+}
@@ -0,0 +1,65 @@
+package com.iprody.payment.service.app.export;
+
+import com.iprody.payment.service.app.persistence.PaymentExportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+
+class CsvPaymentExportWriter implements PaymentExportWriter {
+
+    private static final String HEADER =
+        "guid,inquiry_ref_id,amount,currency,transaction_ref_id,status,note,created_at,updated_at";
+
+    private final Writer out;
+
+    CsvPaymentExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    @Override
+    public void write(PaymentExportRow row) throws IOException {
+        field(row.guid());
+        out.write(',');
+        field(row.inquiryRefId());
+        out.write(',');
+        field(row.amount() != null ? row.amount().toPlainString() : null);
+        out.write(',');
+        field(row.currency());
+        out.write(',');
+        field(row.transactionRefId());
+        out.write(',');
+        field(row.status());
+        out.write(',');
+        field(row.note());
+        out.write(',');
+        field(row.createdAt());
+        out.write(',');
+        field(row.updatedAt());
+        out.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private void field(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        final String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
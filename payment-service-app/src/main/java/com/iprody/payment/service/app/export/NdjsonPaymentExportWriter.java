@@ -0,0 +1,57 @@
+package com.iprody.payment.service.app.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.iprody.payment.service.app.persistence.PaymentExportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.UUID;
+
+class NdjsonPaymentExportWriter implements PaymentExportWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+
+    NdjsonPaymentExportWriter(Writer out) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void writeHeader() {
+        // NDJSON has no header line
+    }
+
+    @Override
+    public void write(PaymentExportRow row) throws IOException {
+        generator.writeStartObject();
+        writeUuid("guid", row.guid());
+        writeUuid("inquiryRefId", row.inquiryRefId());
+        generator.writeNumberField("amount", row.amount());
+        generator.writeStringField("currency", row.currency());
+        writeUuid("transactionRefId", row.transactionRefId());
+        generator.writeStringField("status", row.status() != null ? row.status().name() : null);
+        generator.writeStringField("note", row.note());
+        writeInstant("createdAt", row.createdAt());
+        writeInstant("updatedAt", row.updatedAt());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.close();
+    }
+
+    private void writeUuid(String name, UUID value) throws IOException {
+        generator.writeStringField(name, value != null ? value.toString() : null);
+    }
+
+    private void writeInstant(String name, Instant value) throws IOException {
+        generator.writeStringField(name, value != null ? value.toString() : null);
+    }
+}
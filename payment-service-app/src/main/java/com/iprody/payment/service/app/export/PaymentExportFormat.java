@@ -0,0 +1,46 @@
+package com.iprody.payment.service.app.export;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+public enum PaymentExportFormat {
+
+    CSV(new MediaType("text", "csv"), "csv") {
+        @Override
+        PaymentExportWriter writer(Writer out) {
+            return new CsvPaymentExportWriter(out);
+        }
+    },
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        PaymentExportWriter writer(Writer out) throws IOException {
+            return new NdjsonPaymentExportWriter(out);
+        }
+    };
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    PaymentExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    abstract PaymentExportWriter writer(Writer out) throws IOException;
+
+    public static PaymentExportFormat from(String value) {
+        return PaymentExportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
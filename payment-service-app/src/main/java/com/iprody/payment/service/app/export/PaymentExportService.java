@@ -0,0 +1,57 @@
+package com.iprody.payment.service.app.export;
+
+import com.iprody.payment.service.app.persistence.PaymentExportRow;
+import com.iprody.payment.service.app.persistence.PaymentFilter;
+import com.iprody.payment.service.app.persistency.PaymentExportRepository;
+import com.iprody.payment.service.app.persistency.PaymentFilterFactory;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class PaymentExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentExportService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PaymentExportRepository paymentExportRepository;
+
+    /**
+     * Writes every payment matching {@code filter} to {@code out}. Runs in its own read-only transaction,
+     * which keeps the database cursor open for the duration of the stream.
+     *
+     * @return number of exported rows
+     */
+    @Transactional(readOnly = true)
+    public long export(PaymentFilter filter, PaymentExportFormat format, OutputStream out) throws IOException {
+        final BufferedWriter buffered = new BufferedWriter(
+            new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        final PaymentExportWriter writer = format.writer(buffered);
+
+        long count = 0;
+        try (Stream<PaymentExportRow> rows = paymentExportRepository.stream(PaymentFilterFactory.fromFilter(filter))) {
+            writer.writeHeader();
+            final Iterator<PaymentExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+            }
+        }
+        writer.finish();
+        buffered.flush();
+
+        log.info("Exported {} payments as {}", count, format);
+        return count;
+    }
+}
@@ -0,0 +1,17 @@
+package com.iprody.payment.service.app.export;
+
+import com.iprody.payment.service.app.persistence.PaymentExportRow;
+
+import java.io.IOException;
+
+public interface PaymentExportWriter {
+
+    void writeHeader() throws IOException;
+
+    void write(PaymentExportRow row) throws IOException;
+
+    /**
+     * Flushes buffered rows without closing the underlying response stream.
+     */
+    void finish() throws IOException;
+}
@@ -3,11 +3,14 @@ package com.iprody.payment.service.app.mapper;
 import com.iprody.payment.service.app.dto.PaymentDto;
 import com.iprody.payment.service.app.persistence.entity.Payment;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface PaymentMapper {
 
     PaymentDto toDto(Payment payment);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastEventAt", ignore = true)
     Payment toEntity(PaymentDto paymentDto);
 }
@@ -1,7 +1,8 @@
 package com.iprody.payment.service.app.mapper;
 
-import com.iprody.payment.service.app.async.XPaymentAdapterRequestMessage;
 import com.iprody.payment.service.app.persistence.entity.Payment;
+import com.iprody.payment.service.app.persistence.entity.PaymentOutbox;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -13,4 +14,14 @@ public interface XPaymentAdapterMapper {
     @Mapping(source = "currency", target = "currency")
     @Mapping(source = "updatedAt", target = "occurredAt")
     XPaymentAdapterRequestMessage toXPaymentAdapterRequestMessage(Payment payment);
+
+    @Mapping(target = "id", expression = "java(java.util.UUID.randomUUID())")
+    @Mapping(source = "guid", target = "paymentId")
+    @Mapping(source = "updatedAt", target = "occurredAt", defaultExpression = "java(java.time.Instant.now())")
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "persisted", ignore = true)
+    PaymentOutbox toOutbox(Payment payment);
+
+    @Mapping(source = "id", target = "messageId")
+    XPaymentAdapterRequestMessage toXPaymentAdapterRequestMessage(PaymentOutbox outbox);
 }
@@ -0,0 +1,53 @@
+package com.iprody.payment.service.app.persistence;
+
+import com.iprody.payment.service.app.persistence.entity.Payment;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keyset position of a payment in the {@code (updatedAt desc, guid desc)} search order,
+ * exchanged with clients as an opaque URL-safe token.
+ */
+public record PaymentCursor(
+    Instant updatedAt,
+    UUID guid
+) {
+
+    private static final char SEPARATOR = '|';
+
+    public static PaymentCursor of(Payment payment) {
+        return new PaymentCursor(payment.getUpdatedAt(), payment.getGuid());
+    }
+
+    public static PaymentCursor decode(String token) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor: " + token);
+            }
+            return new PaymentCursor(
+                Instant.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        final String raw = updatedAt.toString() + SEPARATOR + guid;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public KeysetScrollPosition toScrollPosition() {
+        return ScrollPosition.forward(Map.of("updatedAt", updatedAt, "guid", guid));
+    }
+}
@@ -0,0 +1,19 @@
+package com.iprody.payment.service.app.persistence;
+
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record PaymentExportRow(
+    UUID guid,
+    UUID inquiryRefId,
+    BigDecimal amount,
+    String currency,
+    UUID transactionRefId,
+    PaymentStatus status,
+    String note,
+    Instant createdAt,
+    Instant updatedAt
+) { }
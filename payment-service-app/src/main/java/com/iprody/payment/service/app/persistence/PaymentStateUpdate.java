@@ -0,0 +1,17 @@
+package com.iprody.payment.service.app.persistence;
+
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record PaymentStateUpdate(
+    UUID messageId,
+    UUID paymentGuid,
+    BigDecimal amount,
+    String currency,
+    UUID transactionRefId,
+    PaymentStatus status,
+    Instant occurredAt
+) { }
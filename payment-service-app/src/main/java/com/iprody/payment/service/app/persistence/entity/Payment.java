@@ -6,6 +6,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.time.Instant;
 import lombok.Getter;
@@ -15,6 +16,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.util.UUID;
 
+/**
+ * Guids are assigned by the client, so Spring Data decides newness by the {@link Version} instead of the id:
+ * a payment without a version has never been flushed and is persisted straight away, without merge's pre-select.
+ */
 @Entity
 @Table(name = "payment")
 @Getter
@@ -51,4 +56,14 @@ public class Payment {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * {@code occurredAt} of the last XPayment Adapter response applied to this payment; older responses are ignored.
+     */
+    @Column(name = "last_event_at")
+    private Instant lastEventAt;
 }
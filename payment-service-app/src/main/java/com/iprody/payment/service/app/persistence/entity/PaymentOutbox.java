@@ -0,0 +1,62 @@
+package com.iprody.payment.service.app.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.util.UUID;
+
+/**
+ * Pending XPayment Adapter request, written in the same transaction as the payment
+ * and drained to Kafka by {@code PaymentOutboxRelay}. The row id doubles as the message id.
+ */
+@Entity
+@Table(name = "payment_outbox")
+@Getter
+@Setter
+public class PaymentOutbox implements Persistable<UUID> {
+
+    @Id
+    @Column(nullable = false, unique = true)
+    private UUID id;
+
+    @Column(nullable = false, name = "payment_id")
+    private UUID paymentId;
+
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
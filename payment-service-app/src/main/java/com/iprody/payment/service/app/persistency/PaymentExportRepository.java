@@ -0,0 +1,61 @@
+package com.iprody.payment.service.app.persistency;
+
+import com.iprody.payment.service.app.persistence.PaymentExportRow;
+import com.iprody.payment.service.app.persistence.entity.Payment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+/**
+ * Streams payments as flat {@link PaymentExportRow} projections over a forward-only cursor. Rows are fetched
+ * {@code fetch-size} at a time and never enter the persistence context, so memory stays flat however many rows
+ * match. The returned stream must be consumed and closed inside a transaction.
+ */
+@Repository
+public class PaymentExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.payments.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public Stream<PaymentExportRow> stream(Specification<Payment> spec) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<PaymentExportRow> query = cb.createQuery(PaymentExportRow.class);
+        final Root<Payment> root = query.from(Payment.class);
+
+        query.select(cb.construct(
+            PaymentExportRow.class,
+            root.get("guid"),
+            root.get("inquiryRefId"),
+            root.get("amount"),
+            root.get("currency"),
+            root.get("transactionRefId"),
+            root.get("status"),
+            root.get("note"),
+            root.get("createdAt"),
+            root.get("updatedAt")
+        ));
+
+        final Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(root.get("updatedAt")), cb.desc(root.get("guid")));
+
+        return entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+}
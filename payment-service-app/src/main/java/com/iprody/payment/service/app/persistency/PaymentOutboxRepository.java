@@ -0,0 +1,20 @@
+package com.iprody.payment.service.app.persistency;
+
+import com.iprody.payment.service.app.persistence.entity.PaymentOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, UUID> {
+
+    @Query(
+        value = "SELECT * FROM payment_outbox ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+        nativeQuery = true
+    )
+    List<PaymentOutbox> lockNextBatch(@Param("limit") int limit);
+}
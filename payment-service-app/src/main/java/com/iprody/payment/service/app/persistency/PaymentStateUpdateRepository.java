@@ -0,0 +1,126 @@
+package com.iprody.payment.service.app.persistency;
+
+import com.iprody.payment.service.app.persistence.PaymentStateUpdate;
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies XPayment Adapter responses with plain JDBC batches: a {@code processed_message} insert that tells
+ * redeliveries apart from new messages, and a conditional {@code UPDATE} that only moves a payment forward
+ * when the response is newer than the last one applied, so no row has to be loaded first.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentStateUpdateRepository {
+
+    private static final String INSERT_PROCESSED_MESSAGE = """
+        INSERT INTO processed_message (message_id, payment_id, processed_at)
+        VALUES (?, ?, now())
+        ON CONFLICT (message_id) DO NOTHING
+        """;
+
+    private static final String APPLY_IF_NEWER = """
+        UPDATE payment
+        SET amount = ?, currency = ?, transaction_ref_id = ?, status = ?, last_event_at = ?,
+            updated_at = now(), version = version + 1
+        WHERE guid = ? AND (last_event_at IS NULL OR last_event_at < ?)
+        """;
+
+    private static final String SET_STATUS_IF = """
+        UPDATE payment
+        SET status = ?, updated_at = now(), version = version + 1
+        WHERE guid = ANY (?) AND status = ?
+        """;
+
+    private static final String SELECT_CREATED_AT = "SELECT guid, created_at FROM payment WHERE guid = ANY (?)";
+
+    private static final String DELETE_PROCESSED_BEFORE = "DELETE FROM processed_message WHERE processed_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return for each update, whether its message id was recorded now, i.e. it has not been processed before
+     */
+    public boolean[] markProcessed(List<PaymentStateUpdate> updates) {
+        final int[] counts = jdbcTemplate.batchUpdate(INSERT_PROCESSED_MESSAGE, updates, updates.size(), (ps, u) -> {
+            ps.setObject(1, u.messageId());
+            ps.setObject(2, u.paymentGuid());
+        })[0];
+        return toApplied(counts);
+    }
+
+    /**
+     * @return for each update, whether it changed the payment; false means the payment is missing or already
+     *     reflects a response that occurred at the same time or later
+     */
+    public boolean[] applyIfNewer(List<PaymentStateUpdate> updates) {
+        final int[] counts = jdbcTemplate.batchUpdate(APPLY_IF_NEWER, updates, updates.size(), (ps, u) -> {
+            final Timestamp occurredAt = Timestamp.from(u.occurredAt());
+            ps.setBigDecimal(1, u.amount());
+            ps.setString(2, u.currency());
+            ps.setObject(3, u.transactionRefId());
+            ps.setString(4, u.status().name());
+            ps.setTimestamp(5, occurredAt);
+            ps.setObject(6, u.paymentGuid());
+            ps.setTimestamp(7, occurredAt);
+        })[0];
+        return toApplied(counts);
+    }
+
+    /**
+     * Moves the given payments from {@code from} to {@code to}; payments in any other status are left untouched.
+     *
+     * @return number of payments changed
+     */
+    public int transitionStatus(Collection<UUID> paymentGuids, PaymentStatus from, PaymentStatus to) {
+        if (paymentGuids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(con -> {
+            final PreparedStatement ps = con.prepareStatement(SET_STATUS_IF);
+            ps.setString(1, to.name());
+            ps.setArray(2, con.createArrayOf("uuid", paymentGuids.toArray()));
+            ps.setString(3, from.name());
+            return ps;
+        });
+    }
+
+    public Map<UUID, Instant> findCreatedAt(Collection<UUID> paymentGuids) {
+        final Map<UUID, Instant> createdAt = new HashMap<>();
+        jdbcTemplate.query(
+            con -> {
+                final PreparedStatement ps = con.prepareStatement(SELECT_CREATED_AT);
+                ps.setArray(1, con.createArrayOf("uuid", paymentGuids.toArray()));
+                return ps;
+            },
+            rs -> {
+                createdAt.put(rs.getObject(1, UUID.class), rs.getTimestamp(2).toInstant());
+            }
+        );
+        return createdAt;
+    }
+
+    public int deleteProcessedBefore(Instant cutoff) {
+        return jdbcTemplate.update(DELETE_PROCESSED_BEFORE, Timestamp.from(cutoff));
+    }
+
+    private static boolean[] toApplied(int[] counts) {
+        final boolean[] applied = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            applied[i] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+        }
+        return applied;
+    }
+}
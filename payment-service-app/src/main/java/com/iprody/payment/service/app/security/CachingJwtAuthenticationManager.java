@@ -0,0 +1,134 @@
+package com.iprody.payment.service.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers successfully validated bearer tokens so that repeated requests with the same token skip signature
+ * verification and claim conversion. Entries are keyed by the SHA-256 of the token and expire at the token's
+ * {@code exp}; failed authentications are never cached.
+ */
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+
+    private static final String METRIC_NAME = "payment.auth.time";
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, JwtAuthenticationToken> cache;
+
+    private final Timer hitTimer;
+    private final Timer missTimer;
+    private final Timer failureTimer;
+
+    public CachingJwtAuthenticationManager(
+        AuthenticationProvider delegate,
+        long maximumSize,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new TokenExpiry())
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt-authentication");
+        this.hitTimer = authTimer(meterRegistry, "hit", "success");
+        this.missTimer = authTimer(meterRegistry, "miss", "success");
+        this.failureTimer = authTimer(meterRegistry, "miss", "failure");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return null;
+        }
+
+        final long start = System.nanoTime();
+        final String key = hash(bearer.getToken());
+
+        final JwtAuthenticationToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            final JwtAuthenticationToken result =
+                new JwtAuthenticationToken(cached.getToken(), cached.getAuthorities(), cached.getName());
+            result.setDetails(bearer.getDetails());
+            hitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        }
+
+        try {
+            final Authentication result = delegate.authenticate(bearer);
+            if (result instanceof JwtAuthenticationToken jwtToken && jwtToken.getToken().getExpiresAt() != null) {
+                cache.put(key, jwtToken);
+            }
+            missTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (AuthenticationException e) {
+            failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static Timer authTimer(MeterRegistry meterRegistry, String cacheResult, String outcome) {
+        return Timer.builder(METRIC_NAME)
+            .description("Time spent authenticating a bearer token")
+            .tag("cache", cacheResult)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static String hash(String token) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, JwtAuthenticationToken> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtAuthenticationToken value, long currentTime) {
+            final Instant expiresAt = value.getToken().getExpiresAt();
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(
+            String key,
+            JwtAuthenticationToken value,
+            long currentTime,
+            long currentDuration
+        ) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(
+            String key,
+            JwtAuthenticationToken value,
+            long currentTime,
+            long currentDuration
+        ) {
+            return currentDuration;
+        }
+    }
+}
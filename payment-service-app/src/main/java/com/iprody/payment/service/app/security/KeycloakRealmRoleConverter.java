@@ -8,10 +8,18 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Maps Keycloak realm roles to {@code ROLE_*} authorities. The handful of distinct role combinations is interned,
+ * so tokens with the same roles share one immutable authority list instead of rebuilding it per request.
+ */
 public class KeycloakRealmRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
 
+    private static final int MAX_INTERNED = 1024;
+
+    private final Map<List<String>, List<GrantedAuthority>> interned = new ConcurrentHashMap<>();
+
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
         final Map<String, Object> realmAccess = jwt.getClaim("realm_access");
@@ -20,10 +28,23 @@ public class KeycloakRealmRoleConverter implements Converter<Jwt, Collection<Gra
             return List.of();
         }
 
-        final Collection<String> roles = (Collection<String>) realmAccess.get("roles");
+        final List<String> roles = List.copyOf((Collection<String>) realmAccess.get("roles"));
+
+        final List<GrantedAuthority> known = interned.get(roles);
+        if (known != null) {
+            return known;
+        }
+
+        final List<GrantedAuthority> authorities = toAuthorities(roles);
+        if (interned.size() < MAX_INTERNED) {
+            interned.putIfAbsent(roles, authorities);
+        }
+        return authorities;
+    }
 
+    private static List<GrantedAuthority> toAuthorities(List<String> roles) {
         return roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toList());
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
     }
 }
@@ -1,33 +1,86 @@
 package com.iprody.payment.service.app.security;
 
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.net.MalformedURLException;
+import java.net.URI;
+
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        final JwtAuthenticationConverter jwtConverter = new JwtAuthenticationConverter();
-
-        jwtConverter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter());
-
+    public SecurityFilterChain securityFilterChain(
+        HttpSecurity http,
+        AuthenticationManager jwtAuthenticationManager
+    ) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(sm ->
             sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+            .requestMatchers("/actuator/health/**").permitAll()
+            .requestMatchers("/actuator/**").hasRole("admin")
             .requestMatchers("/payments/**").hasRole("user").anyRequest().authenticated())
             .oauth2ResourceServer(oauth2 ->
-            oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtConverter)));
+            oauth2.jwt(jwt -> jwt.authenticationManager(jwtAuthenticationManager)));
 
         return http.build();
     }
+
+    /**
+     * Signing keys are cached and refreshed ahead of expiry on a background thread, so request threads only
+     * hit the JWKS endpoint when an unknown {@code kid} shows up.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(
+        @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+        @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+        @Value("${app.security.jwks.cache-ttl-ms:900000}") long cacheTtlMs,
+        @Value("${app.security.jwks.refresh-timeout-ms:15000}") long refreshTimeoutMs,
+        @Value("${app.security.jwks.refresh-ahead-ms:60000}") long refreshAheadMs
+    ) throws MalformedURLException {
+        final JWKSource<SecurityContext> jwkSource = JWKSourceBuilder
+            .<SecurityContext>create(URI.create(jwkSetUri).toURL())
+            .cache(cacheTtlMs, refreshTimeoutMs)
+            .refreshAheadCache(refreshAheadMs, true)
+            .build();
+
+        final NimbusJwtDecoder decoder = NimbusJwtDecoder.withJwkSource(jwkSource).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return decoder;
+    }
+
+    @Bean
+    public AuthenticationManager jwtAuthenticationManager(
+        JwtDecoder jwtDecoder,
+        MeterRegistry meterRegistry,
+        @Value("${app.security.jwt-cache.maximum-size:10000}") long maximumSize
+    ) {
+        final JwtAuthenticationConverter jwtConverter = new JwtAuthenticationConverter();
+
+        jwtConverter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter());
+
+        final JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(jwtConverter);
+
+        return new CachingJwtAuthenticationManager(provider, maximumSize, meterRegistry);
+    }
 }
@@ -0,0 +1,50 @@
+package com.iprody.payment.service.app.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Programmatic access to the {@value #NAME} cache for write paths that don't go through {@link PaymentService},
+ * such as the XPayment Adapter response handler. Evictions inside a transaction are deferred until it commits,
+ * so a concurrent read can't repopulate the cache with the pre-commit row.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentCache {
+
+    public static final String NAME = "payments";
+
+    private final CacheManager cacheManager;
+
+    public void evict(UUID id) {
+        evict(List.of(id));
+    }
+
+    public void evict(Collection<UUID> ids) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(ids);
+                }
+            });
+            return;
+        }
+        evictNow(ids);
+    }
+
+    private void evictNow(Collection<UUID> ids) {
+        final Cache cache = cacheManager.getCache(NAME);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+}
@@ -1,20 +1,27 @@
 package com.iprody.payment.service.app.service;
 
+import com.iprody.payment.service.app.dto.PaymentBatchResultDto;
 import com.iprody.payment.service.app.dto.PaymentDto;
+import com.iprody.payment.service.app.dto.PaymentSliceDto;
 import com.iprody.payment.service.app.persistence.PaymentFilter;
 import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.util.List;
 import java.util.UUID;
 
 public interface PaymentService {
 
     PaymentDto create(PaymentDto dto);
 
+    PaymentBatchResultDto createBatch(List<PaymentDto> dtos);
+
     PaymentDto get(UUID id);
 
     Page<PaymentDto> search(PaymentFilter filter, Pageable pageable);
 
+    PaymentSliceDto searchAfter(PaymentFilter filter, String cursor, int size);
+
     PaymentDto update(UUID id, PaymentDto dto);
 
     PaymentDto updateStatus(UUID id, PaymentStatus status);
@@ -1,81 +1,244 @@
 package com.iprody.payment.service.app.service;
 
-import com.iprody.payment.service.app.async.AsyncSender;
-import com.iprody.payment.service.app.async.XPaymentAdapterRequestMessage;
+import com.iprody.payment.service.app.datasource.PrimaryReads;
+import com.iprody.payment.service.app.dto.PaymentBatchItemDto;
+import com.iprody.payment.service.app.dto.PaymentBatchItemStatus;
+import com.iprody.payment.service.app.dto.PaymentBatchResultDto;
 import com.iprody.payment.service.app.dto.PaymentDto;
+import com.iprody.payment.service.app.dto.PaymentSliceDto;
 import com.iprody.payment.service.app.exception.EntityNotFoundException;
+import com.iprody.payment.service.app.exception.InvalidRequestException;
 import com.iprody.payment.service.app.exception.Operation;
 import com.iprody.payment.service.app.mapper.PaymentMapper;
 import com.iprody.payment.service.app.mapper.XPaymentAdapterMapper;
+import com.iprody.payment.service.app.persistence.PaymentCursor;
 import com.iprody.payment.service.app.persistence.PaymentFilter;
 import com.iprody.payment.service.app.persistence.entity.Payment;
+import com.iprody.payment.service.app.persistence.entity.PaymentOutbox;
 import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
 import com.iprody.payment.service.app.persistency.PaymentFilterFactory;
+import com.iprody.payment.service.app.persistency.PaymentOutboxRepository;
 import com.iprody.payment.service.app.persistency.PaymentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.desc("guid"));
+
     private final PaymentRepository paymentRepository;
     private final PaymentMapper paymentMapper;
     private final XPaymentAdapterMapper xPaymentAdapterMapper;
-    private final AsyncSender<XPaymentAdapterRequestMessage> sender;
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final PaymentValidator paymentValidator;
+
+    @Value("${app.payments.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.payments.search.max-size:500}")
+    private int maxSearchSize;
 
     @Override
+    @Transactional
     public PaymentDto create(PaymentDto dto) {
+        final List<String> errors = paymentValidator.validate(dto);
+        if (!errors.isEmpty()) {
+            throw new InvalidRequestException(String.join("; ", errors), Operation.CREATE_OP);
+        }
+
         final Payment entity = paymentMapper.toEntity(dto);
         final Payment saved = paymentRepository.save(entity);
-        final PaymentDto resultDto = paymentMapper.toDto(saved);
 
-        final XPaymentAdapterRequestMessage requestMessage = xPaymentAdapterMapper
-            .toXPaymentAdapterRequestMessage(entity);
-        sender.send(requestMessage);
+        final PaymentOutbox outbox = xPaymentAdapterMapper.toOutbox(saved);
+        paymentOutboxRepository.save(outbox);
 
-        return resultDto;
+        return paymentMapper.toDto(saved);
     }
 
+    /**
+     * Creates every valid payment of the batch in one transaction; payments and their outbox rows are written
+     * with JDBC batching and the relay publishes the resulting requests in a single producer flush.
+     * Invalid or already existing payments are reported per item and don't affect the rest of the batch.
+     */
     @Override
+    @Transactional
+    public PaymentBatchResultDto createBatch(List<PaymentDto> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new InvalidRequestException("Payment batch must not be empty", Operation.CREATE_OP);
+        }
+        if (dtos.size() > maxBatchSize) {
+            throw new InvalidRequestException(
+                String.format("Payment batch size %d exceeds the limit of %d", dtos.size(), maxBatchSize),
+                Operation.CREATE_OP
+            );
+        }
+
+        final Set<UUID> existing = paymentRepository.findAllById(dtos.stream()
+                .map(PaymentDto::getGuid)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()))
+            .stream()
+            .map(Payment::getGuid)
+            .collect(Collectors.toSet());
+
+        final Set<UUID> seen = new HashSet<>();
+        final List<PaymentBatchItemDto> items = new ArrayList<>(dtos.size());
+        final List<Payment> accepted = new ArrayList<>(dtos.size());
+        final List<Integer> acceptedIndexes = new ArrayList<>(dtos.size());
+
+        for (int i = 0; i < dtos.size(); i++) {
+            final PaymentDto dto = dtos.get(i);
+            final List<String> errors = paymentValidator.validate(dto);
+            if (dto.getGuid() != null && existing.contains(dto.getGuid())) {
+                errors.add("Payment already exists: " + dto.getGuid());
+            } else if (dto.getGuid() != null && !seen.add(dto.getGuid())) {
+                errors.add("Duplicate payment guid in batch: " + dto.getGuid());
+            }
+
+            if (!errors.isEmpty()) {
+                items.add(PaymentBatchItemDto.builder()
+                    .index(i)
+                    .guid(dto.getGuid())
+                    .status(PaymentBatchItemStatus.REJECTED)
+                    .errors(errors)
+                    .build());
+                continue;
+            }
+
+            accepted.add(paymentMapper.toEntity(dto));
+            acceptedIndexes.add(i);
+            items.add(null);
+        }
+
+        final List<Payment> saved = paymentRepository.saveAll(accepted);
+        paymentOutboxRepository.saveAll(saved.stream().map(xPaymentAdapterMapper::toOutbox).toList());
+
+        for (int i = 0; i < saved.size(); i++) {
+            final Payment payment = saved.get(i);
+            final int index = acceptedIndexes.get(i);
+            items.set(index, PaymentBatchItemDto.builder()
+                .index(index)
+                .guid(payment.getGuid())
+                .status(PaymentBatchItemStatus.CREATED)
+                .payment(paymentMapper.toDto(payment))
+                .errors(List.of())
+                .build());
+        }
+
+        return PaymentBatchResultDto.builder()
+            .created(saved.size())
+            .rejected(dtos.size() - saved.size())
+            .items(items)
+            .build();
+    }
+
+    /**
+     * Reads from the primary: the result is cached until the next eviction, so it must not come from a lagging
+     * replica.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = PaymentCache.NAME, key = "#id")
     public PaymentDto get(UUID id) {
-        return paymentRepository.findById(id)
+        return PrimaryReads.call(() -> paymentRepository.findById(id)
                 .map(paymentMapper::toDto)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Payment not found for given id",
                         Operation.FIND_BY_ID_OP,
                         id
-                ));
+                )));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<PaymentDto> search(PaymentFilter filter, Pageable pageable) {
         final Specification<Payment> spec = PaymentFilterFactory.fromFilter(filter);
         return paymentRepository.findAll(spec, pageable).map(paymentMapper::toDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public PaymentSliceDto searchAfter(PaymentFilter filter, String cursor, int size) {
+        if (size < 1 || size > maxSearchSize) {
+            throw new InvalidRequestException(
+                String.format("Search size must be between 1 and %d: %d", maxSearchSize, size),
+                Operation.FIND_ALL_OP
+            );
+        }
+        final Specification<Payment> spec = PaymentFilterFactory.fromFilter(filter);
+        final ScrollPosition position = cursor == null || cursor.isBlank()
+            ? ScrollPosition.keyset()
+            : decodeCursor(cursor).toScrollPosition();
+
+        final Window<Payment> window = paymentRepository.findBy(spec, query -> query
+            .sortBy(KEYSET_SORT)
+            .limit(size)
+            .scroll(position));
+
+        final String nextCursor = window.hasNext() && !window.isEmpty()
+            ? PaymentCursor.of(window.getContent().getLast()).encode()
+            : null;
+
+        return PaymentSliceDto.builder()
+            .content(window.getContent().stream().map(paymentMapper::toDto).toList())
+            .size(window.size())
+            .hasNext(window.hasNext())
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    private PaymentCursor decodeCursor(String cursor) {
+        try {
+            return PaymentCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid search cursor", Operation.FIND_ALL_OP, e);
+        }
+    }
+
+    @Override
+    @Transactional
+    @CachePut(cacheNames = PaymentCache.NAME, key = "#id")
     public PaymentDto update(UUID id, PaymentDto dto) {
-        if (!paymentRepository.existsById(id)) {
-            throw new EntityNotFoundException(
+        final Payment existing = paymentRepository.findById(id)
+            .orElseThrow(() -> new EntityNotFoundException(
                     "Payment not found for given id",
                     Operation.UPDATE_OP,
                     id
-            );
-        }
+            ));
 
         final Payment updated = paymentMapper.toEntity(dto);
         updated.setGuid(id);
+        updated.setVersion(existing.getVersion());
+        updated.setLastEventAt(existing.getLastEventAt());
 
         final Payment saved = paymentRepository.save(updated);
         return paymentMapper.toDto(saved);
     }
 
     @Override
+    @Transactional
+    @CachePut(cacheNames = PaymentCache.NAME, key = "#id")
     public PaymentDto updateStatus(UUID id, PaymentStatus status) {
         final Payment payment = paymentRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Payment not found for given id", Operation.UPDATE_OP, id));
@@ -87,6 +250,8 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @Transactional
+    @CachePut(cacheNames = PaymentCache.NAME, key = "#id")
     public PaymentDto updateNote(UUID id, String note) {
         final Payment payment = paymentRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Payment not found for given id", Operation.UPDATE_OP, id));
@@ -98,6 +263,8 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = PaymentCache.NAME, key = "#id")
     public void delete(UUID id) {
         if (!paymentRepository.existsById(id)) {
             throw new EntityNotFoundException(
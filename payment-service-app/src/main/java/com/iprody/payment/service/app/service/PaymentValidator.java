@@ -0,0 +1,58 @@
+package com.iprody.payment.service.app.service;
+
+import com.iprody.payment.service.app.dto.PaymentDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Checks a payment to be created, for both single and batch creation. The amount limit defaults to what the
+ * {@code payment.amount} column ({@code numeric(5, 2)}) can hold and is set with {@code app.payments.max-amount}.
+ */
+@Component
+class PaymentValidator {
+
+    private final BigDecimal maxAmount;
+
+    PaymentValidator(@Value("${app.payments.max-amount:999.99}") BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    List<String> validate(PaymentDto dto) {
+        final List<String> errors = new ArrayList<>();
+
+        if (dto.getGuid() == null) {
+            errors.add("Guid is required");
+        }
+        if (dto.getInquiryRefId() == null) {
+            errors.add("Inquiry reference id is required");
+        }
+        if (dto.getStatus() == null) {
+            errors.add("Status is required");
+        }
+
+        if (dto.getAmount() == null) {
+            errors.add("Amount is required");
+        } else if (dto.getAmount().signum() <= 0 || dto.getAmount().compareTo(maxAmount) > 0) {
+            errors.add("Amount must be between 0.01 and " + maxAmount + ": " + dto.getAmount());
+        } else if (dto.getAmount().scale() > 2) {
+            errors.add("Amount must not have more than 2 fraction digits: " + dto.getAmount());
+        }
+
+        if (dto.getCurrency() == null || dto.getCurrency().isBlank()) {
+            errors.add("Currency is required");
+        } else {
+            try {
+                Currency.getInstance(dto.getCurrency());
+            } catch (IllegalArgumentException e) {
+                errors.add("Unknown currency code: " + dto.getCurrency());
+            }
+        }
+
+        return errors;
+    }
+}
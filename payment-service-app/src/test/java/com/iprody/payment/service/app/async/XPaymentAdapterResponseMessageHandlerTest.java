@@ -0,0 +1,119 @@
+package com.iprody.payment.service.app.async;
+
+import com.iprody.payment.service.app.exception.EntityNotFoundException;
+import com.iprody.payment.service.app.persistence.PaymentStateUpdate;
+import com.iprody.payment.service.app.persistence.entity.Payment;
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+import com.iprody.payment.service.app.persistency.PaymentRepository;
+import com.iprody.payment.service.app.persistency.PaymentStateUpdateRepository;
+import com.iprody.payment.service.app.service.PaymentCache;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class XPaymentAdapterResponseMessageHandlerTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentStateUpdateRepository paymentStateUpdateRepository;
+
+    @Mock
+    private PaymentCache paymentCache;
+
+    @Mock
+    private PaymentLifecycleMetrics paymentLifecycleMetrics;
+
+    @InjectMocks
+    private XPaymentAdapterResponseMessageHandler handler;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handleAll_shouldSkipAlreadyProcessedMessages() {
+        // given
+        final UUID paymentGuid = UUID.randomUUID();
+        final XPaymentAdapterResponseMessage redelivered = message(paymentGuid, XPaymentAdapterStatus.PROCESSING);
+        final XPaymentAdapterResponseMessage fresh = message(paymentGuid, XPaymentAdapterStatus.SUCCEEDED);
+
+        when(paymentStateUpdateRepository.markProcessed(anyList())).thenReturn(new boolean[] {false, true});
+        when(paymentStateUpdateRepository.applyIfNewer(anyList())).thenReturn(new boolean[] {true});
+
+        // when
+        handler.handleAll(List.of(redelivered, fresh));
+
+        // then
+        final ArgumentCaptor<List<PaymentStateUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(paymentStateUpdateRepository).applyIfNewer(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(fresh.messageId(), captor.getValue().getFirst().messageId());
+        assertEquals(PaymentStatus.APPROVED, captor.getValue().getFirst().status());
+        verify(paymentCache).evict(Set.of(paymentGuid));
+    }
+
+    @Test
+    void handleAll_shouldIgnoreStaleResponse_whenPaymentExists() {
+        // given
+        final Payment payment = new Payment();
+        payment.setGuid(UUID.randomUUID());
+        final XPaymentAdapterResponseMessage stale = message(payment.getGuid(), XPaymentAdapterStatus.PROCESSING);
+
+        when(paymentStateUpdateRepository.markProcessed(anyList())).thenReturn(new boolean[] {true});
+        when(paymentStateUpdateRepository.applyIfNewer(anyList())).thenReturn(new boolean[] {false});
+        when(paymentRepository.findAllById(Set.of(payment.getGuid()))).thenReturn(List.of(payment));
+
+        // when
+        handler.handleAll(List.of(stale));
+
+        // then
+        verify(paymentCache).evict(Set.of(payment.getGuid()));
+    }
+
+    @Test
+    void handleAll_shouldFailWholeBatch_whenPaymentIsMissing() {
+        // given
+        final UUID missingGuid = UUID.randomUUID();
+
+        when(paymentStateUpdateRepository.markProcessed(anyList())).thenReturn(new boolean[] {true});
+        when(paymentStateUpdateRepository.applyIfNewer(anyList())).thenReturn(new boolean[] {false});
+        when(paymentRepository.findAllById(Set.of(missingGuid))).thenReturn(List.of());
+
+        // when & then
+        assertThrows(EntityNotFoundException.class, () -> handler.handleAll(List.of(
+            message(missingGuid, XPaymentAdapterStatus.SUCCEEDED)
+        )));
+        verify(paymentCache, never()).evict(anyCollection());
+    }
+
+    private static XPaymentAdapterResponseMessage message(UUID paymentGuid, XPaymentAdapterStatus status) {
+        return new XPaymentAdapterResponseMessage(
+            UUID.randomUUID(),
+            paymentGuid,
+            new BigDecimal("10.00"),
+            "USD",
+            UUID.randomUUID(),
+            status,
+            Instant.now()
+        );
+    }
+}
@@ -0,0 +1,97 @@
+package com.iprody.payment.service.app.async.kafka;
+
+import com.iprody.payment.service.app.exception.EntityNotFoundException;
+import com.iprody.payment.service.app.exception.Operation;
+import com.iprody.xpayment.contract.MessageHandler;
+import com.iprody.xpayment.contract.XPaymentAdapterMessageValidator;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaXPaymentAdapterResultBatchListenerAdapterTest {
+
+    private static final String TOPIC = "xpayment-adapter.responses";
+
+    @Mock
+    private MessageHandler<XPaymentAdapterResponseMessage> handler;
+
+    @Mock
+    private KafkaTemplate<String, Object> template;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private KafkaXPaymentAdapterResultBatchListenerAdapter listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new KafkaXPaymentAdapterResultBatchListenerAdapter(
+            handler, template, new XPaymentAdapterMessageValidator(),
+            new ResponseListenerMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(listener, "deadLetterTopic", TOPIC + ".dlt");
+    }
+
+    @Test
+    void consume_shouldReportFailingRecord_whenBatchFails() {
+        // given
+        final XPaymentAdapterResponseMessage applied = message();
+        final XPaymentAdapterResponseMessage unknown = message();
+        final XPaymentAdapterResponseMessage pending = message();
+        doThrow(new EntityNotFoundException("Payment not found", Operation.UPDATE_OP, unknown.paymentGuid()))
+            .when(handler).handleAll(anyList());
+        doThrow(new EntityNotFoundException("Payment not found", Operation.UPDATE_OP, unknown.paymentGuid()))
+            .when(handler).handle(unknown);
+
+        // when
+        final BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+            () -> listener.consume(List.of(record(0, applied), record(1, unknown), record(2, pending)), ack));
+
+        // then
+        assertEquals(1, failure.getIndex());
+        verify(handler).handle(applied);
+        verify(handler, never()).handle(pending);
+        verify(ack, never()).acknowledge();
+    }
+
+    private static ConsumerRecord<String, XPaymentAdapterResponseMessage> record(
+        long offset,
+        XPaymentAdapterResponseMessage message
+    ) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, String.valueOf(message.paymentGuid()), message);
+    }
+
+    private static XPaymentAdapterResponseMessage message() {
+        return XPaymentAdapterResponseMessage.builder()
+            .messageId(UUID.randomUUID())
+            .paymentGuid(UUID.randomUUID())
+            .transactionRefId(UUID.randomUUID())
+            .amount(new BigDecimal("10.00"))
+            .currency("USD")
+            .status(XPaymentAdapterStatus.SUCCEEDED)
+            .occurredAt(Instant.now())
+            .build();
+    }
+}
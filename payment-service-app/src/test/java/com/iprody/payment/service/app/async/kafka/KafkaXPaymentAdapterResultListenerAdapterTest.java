@@ -0,0 +1,159 @@
+package com.iprody.payment.service.app.async.kafka;
+
+import com.iprody.xpayment.contract.MessageHandler;
+import com.iprody.xpayment.contract.XPaymentAdapterMessageValidator;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.DestinationTopic;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaXPaymentAdapterResultListenerAdapterTest {
+
+    private static final String TOPIC = "xpayment-adapter.responses";
+    private static final String DLT = "xpayment-adapter.responses.dlt";
+
+    @Mock
+    private MessageHandler<XPaymentAdapterResponseMessage> handler;
+
+    @Mock
+    private KafkaTemplate<String, XPaymentAdapterResponseMessage> template;
+
+    @Mock
+    private KafkaTemplate<String, Object> retryTemplate;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private KafkaXPaymentAdapterResultListenerAdapter listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new KafkaXPaymentAdapterResultListenerAdapter(
+            handler, template, new XPaymentAdapterMessageValidator(), new ResponseListenerMetrics(meterRegistry));
+        ReflectionTestUtils.setField(listener, "deadLetterTopic", DLT);
+    }
+
+    @Test
+    void responseRetryTopicConfiguration_shouldEndInDlt_afterRetryTopics() {
+        // given
+        final KafkaResponseRetryTopicConfig config = new KafkaResponseRetryTopicConfig();
+
+        // when
+        final List<DestinationTopic.Properties> topics = config
+            .responseRetryTopicConfiguration(retryTemplate, TOPIC, 4, 1_000, 5, 60_000, 6, (short) 1)
+            .getDestinationTopicProperties();
+
+        // then
+        assertEquals(5, topics.size());
+        assertEquals(".retry-1000", topics.get(1).suffix());
+        assertEquals(".retry-25000", topics.get(3).suffix());
+        assertTrue(topics.get(4).isDltTopic());
+        assertEquals(".dlt", topics.get(4).suffix());
+    }
+
+    @Test
+    void consume_shouldCountRetryAndRethrow_whenHandlingFails() {
+        // given
+        final XPaymentAdapterResponseMessage message = message(new BigDecimal("10.00"));
+        doThrow(new IllegalStateException("database unavailable")).when(handler).handle(message);
+
+        // when
+        assertThrows(IllegalStateException.class, () -> listener.consume(message, record(message), ack));
+
+        // then
+        verify(ack, never()).acknowledge();
+        assertEquals(1, meterRegistry.get("payment.response.retry")
+            .tags("topic", TOPIC, "exception", "IllegalStateException")
+            .counter()
+            .count());
+    }
+
+    @Test
+    void onDeadLetter_shouldCountDeadLetteredResponse_whenRetriesAreExhausted() {
+        // given
+        final XPaymentAdapterResponseMessage message = message(new BigDecimal("10.00"));
+        final ConsumerRecord<String, XPaymentAdapterResponseMessage> record = record(message);
+        record.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN,
+            IllegalStateException.class.getName().getBytes(StandardCharsets.UTF_8));
+
+        // when
+        listener.onDeadLetter(record, ack);
+
+        // then
+        verify(ack).acknowledge();
+        assertEquals(1, meterRegistry.get("payment.response.dead-lettered")
+            .tags("listener", "record", "reason", "retries-exhausted")
+            .counter()
+            .count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void consume_shouldKeepHeaders_whenSendingInvalidResponseToDlt() {
+        // given
+        final XPaymentAdapterResponseMessage message = message(new BigDecimal("-1.00"));
+        final ConsumerRecord<String, XPaymentAdapterResponseMessage> record = record(message);
+        final byte[] traceparent = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"
+            .getBytes(StandardCharsets.UTF_8);
+        record.headers().add("traceparent", traceparent);
+
+        // when
+        listener.consume(message, record, ack);
+
+        // then
+        final ArgumentCaptor<ProducerRecord<String, XPaymentAdapterResponseMessage>> sent =
+            ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(template).send(sent.capture());
+        verify(handler, never()).handle(message);
+        verify(ack).acknowledge();
+        assertEquals(DLT, sent.getValue().topic());
+        assertArrayEquals(traceparent, sent.getValue().headers().lastHeader("traceparent").value());
+    }
+
+    private static ConsumerRecord<String, XPaymentAdapterResponseMessage> record(
+        XPaymentAdapterResponseMessage message
+    ) {
+        return new ConsumerRecord<>(TOPIC, 0, 42L, String.valueOf(message.paymentGuid()), message);
+    }
+
+    private static XPaymentAdapterResponseMessage message(BigDecimal amount) {
+        return XPaymentAdapterResponseMessage.builder()
+            .messageId(UUID.randomUUID())
+            .paymentGuid(UUID.randomUUID())
+            .transactionRefId(UUID.randomUUID())
+            .amount(amount)
+            .currency("USD")
+            .status(XPaymentAdapterStatus.SUCCEEDED)
+            .occurredAt(Instant.now())
+            .build();
+    }
+}
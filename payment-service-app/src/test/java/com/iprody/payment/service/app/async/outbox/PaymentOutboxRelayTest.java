@@ -0,0 +1,197 @@
+package com.iprody.payment.service.app.async.outbox;
+
+import com.iprody.payment.service.app.mapper.XPaymentAdapterMapper;
+import com.iprody.payment.service.app.persistence.entity.PaymentOutbox;
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+import com.iprody.payment.service.app.persistency.PaymentOutboxRepository;
+import com.iprody.payment.service.app.persistency.PaymentStateUpdateRepository;
+import com.iprody.payment.service.app.service.PaymentCache;
+import com.iprody.xpayment.contract.AsyncSender;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentOutboxRelayTest {
+
+    @Mock
+    private PaymentOutboxRepository outboxRepository;
+
+    @Mock
+    private XPaymentAdapterMapper xPaymentAdapterMapper;
+
+    @Mock
+    private AsyncSender<XPaymentAdapterRequestMessage> sender;
+
+    @Mock
+    private PaymentStateUpdateRepository paymentStateUpdateRepository;
+
+    @Mock
+    private PaymentCache paymentCache;
+
+    private PaymentOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new PaymentOutboxRelay(
+            outboxRepository,
+            xPaymentAdapterMapper,
+            sender,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            paymentStateUpdateRepository,
+            paymentCache,
+            new SimpleMeterRegistry(),
+            2,
+            1000
+        );
+    }
+
+    @Test
+    void drainBatch_shouldDeleteOnlyAcknowledgedMessages() {
+        // given
+        final PaymentOutbox first = outbox();
+        final PaymentOutbox second = outbox();
+        final XPaymentAdapterRequestMessage firstMessage = message(first);
+        final XPaymentAdapterRequestMessage secondMessage = message(second);
+
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of(first, second));
+        when(xPaymentAdapterMapper.toXPaymentAdapterRequestMessage(first)).thenReturn(firstMessage);
+        when(xPaymentAdapterMapper.toXPaymentAdapterRequestMessage(second)).thenReturn(secondMessage);
+        when(sender.sendAll(List.of(firstMessage, secondMessage))).thenReturn(List.of(
+            CompletableFuture.completedFuture(null),
+            CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+        ));
+
+        // when
+        final int published = relay.drainBatch();
+
+        // then
+        assertEquals(1, published);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(first.getId()));
+        verify(paymentStateUpdateRepository).transitionStatus(
+            List.of(second.getPaymentId()), PaymentStatus.RECEIVED, PaymentStatus.NOT_SENT);
+    }
+
+    @Test
+    void drainBatch_shouldDropMessages_thatCantBeSerialized() {
+        // given
+        final PaymentOutbox first = outbox();
+        final PaymentOutbox poison = outbox();
+        poison.setCurrency("EURO");
+        final XPaymentAdapterRequestMessage firstMessage = message(first);
+        final XPaymentAdapterRequestMessage poisonMessage = message(poison);
+
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of(first, poison));
+        when(xPaymentAdapterMapper.toXPaymentAdapterRequestMessage(first)).thenReturn(firstMessage);
+        when(xPaymentAdapterMapper.toXPaymentAdapterRequestMessage(poison)).thenReturn(poisonMessage);
+        when(sender.sendAll(List.of(firstMessage, poisonMessage))).thenReturn(List.of(
+            CompletableFuture.completedFuture(null),
+            CompletableFuture.failedFuture(new SerializationException("Currency is not a 3-letter code: EURO"))
+        ));
+
+        // when
+        final int published = relay.drainBatch();
+
+        // then
+        assertEquals(1, published);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(first.getId(), poison.getId()));
+        verify(paymentStateUpdateRepository).transitionStatus(
+            List.of(poison.getPaymentId()), PaymentStatus.RECEIVED, PaymentStatus.NOT_SENT);
+    }
+
+    @Test
+    void drainBatch_shouldWaitSendTimeoutOnce_forWholeBatch() {
+        // given
+        final PaymentOutbox first = outbox();
+        final PaymentOutbox second = outbox();
+        final XPaymentAdapterRequestMessage firstMessage = message(first);
+        final XPaymentAdapterRequestMessage secondMessage = message(second);
+
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of(first, second));
+        when(xPaymentAdapterMapper.toXPaymentAdapterRequestMessage(first)).thenReturn(firstMessage);
+        when(xPaymentAdapterMapper.toXPaymentAdapterRequestMessage(second)).thenReturn(secondMessage);
+        when(sender.sendAll(List.of(firstMessage, secondMessage))).thenReturn(List.of(
+            new CompletableFuture<>(),
+            new CompletableFuture<>()
+        ));
+
+        // when
+        final long started = System.nanoTime();
+        final int published = relay.drainBatch();
+        final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // then
+        assertEquals(0, published);
+        assertTrue(elapsedMs < 1500, "batch waited " + elapsedMs + " ms");
+        verify(paymentStateUpdateRepository).transitionStatus(
+            List.of(first.getPaymentId(), second.getPaymentId()), PaymentStatus.RECEIVED, PaymentStatus.NOT_SENT);
+    }
+
+    @Test
+    void relay_shouldNotDrain_whenProducerIsSaturated() {
+        // given
+        when(sender.isSaturated()).thenReturn(true);
+
+        // when
+        relay.relay();
+
+        // then
+        verify(outboxRepository, never()).lockNextBatch(2);
+    }
+
+    @Test
+    void drainBatch_shouldSkipSend_whenOutboxIsEmpty() {
+        // given
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of());
+
+        // when
+        final int published = relay.drainBatch();
+
+        // then
+        assertEquals(0, published);
+        verify(sender, never()).sendAll(anyList());
+    }
+
+    private static PaymentOutbox outbox() {
+        final PaymentOutbox outbox = new PaymentOutbox();
+        outbox.setId(UUID.randomUUID());
+        outbox.setPaymentId(UUID.randomUUID());
+        outbox.setAmount(new BigDecimal("10.00"));
+        outbox.setCurrency("USD");
+        outbox.setOccurredAt(Instant.parse("2026-01-01T10:00:00Z"));
+        outbox.setCreatedAt(Instant.parse("2026-01-01T10:00:00Z"));
+        return outbox;
+    }
+
+    private static XPaymentAdapterRequestMessage message(PaymentOutbox outbox) {
+        return new XPaymentAdapterRequestMessage(
+            outbox.getId(),
+            outbox.getPaymentId(),
+            outbox.getAmount(),
+            outbox.getCurrency(),
+            outbox.getOccurredAt()
+        );
+    }
+}
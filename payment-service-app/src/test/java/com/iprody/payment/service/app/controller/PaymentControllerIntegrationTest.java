@@ -2,33 +2,42 @@ package com.iprody.payment.service.app.controller;
 
 import com.iprody.payment.service.app.AbstractPostgresIntegrationTest;
 import com.iprody.payment.service.app.TestJwtFactory;
-import com.iprody.payment.service.app.async.AsyncSender;
-import com.iprody.payment.service.app.async.XPaymentAdapterRequestMessage;
 import com.iprody.payment.service.app.dto.PaymentDto;
+import com.iprody.payment.service.app.dto.PaymentSliceDto;
 import com.iprody.payment.service.app.persistence.entity.Payment;
 import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
 import com.iprody.payment.service.app.persistency.PaymentRepository;
+import com.iprody.xpayment.contract.AsyncSender;
+import com.iprody.xpayment.contract.MessageHandler;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import tools.jackson.databind.ObjectMapper;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -43,6 +52,9 @@ class PaymentControllerIntegrationTest extends AbstractPostgresIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MessageHandler<XPaymentAdapterResponseMessage> responseHandler;
+
     @MockitoBean
     private AsyncSender<XPaymentAdapterRequestMessage> sender;
 
@@ -59,6 +71,105 @@ class PaymentControllerIntegrationTest extends AbstractPostgresIntegrationTest {
                 .andExpect(jsonPath("$.content[?(@.guid=='00000000-0000-0000-0000-000000000003')]").exists());
     }
 
+    @Test
+    void shouldPageThroughSearchResultsWithCursor() throws Exception {
+        final String firstResponse = mockMvc.perform(get("/payments/search/keyset")
+                        .with(TestJwtFactory.jwtWithRole("test-user", "user", "reader"))
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        final PaymentSliceDto firstSlice = objectMapper.readValue(firstResponse, PaymentSliceDto.class);
+
+        final String secondResponse = mockMvc.perform(get("/payments/search/keyset")
+                        .with(TestJwtFactory.jwtWithRole("test-user", "user", "reader"))
+                        .param("size", "2")
+                        .param("cursor", firstSlice.getNextCursor())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        final PaymentSliceDto secondSlice = objectMapper.readValue(secondResponse, PaymentSliceDto.class);
+
+        assertThat(secondSlice.getContent()).isNotEmpty();
+        assertThat(secondSlice.getContent())
+                .extracting(PaymentDto::getGuid)
+                .doesNotContainAnyElementsOf(firstSlice.getContent().stream().map(PaymentDto::getGuid).toList());
+        assertThat(secondSlice.getContent().getFirst().getUpdatedAt())
+                .isBeforeOrEqualTo(firstSlice.getContent().getLast().getUpdatedAt());
+    }
+
+    @Test
+    void shouldRejectMalformedSearchCursor() throws Exception {
+        mockMvc.perform(get("/payments/search/keyset")
+                        .with(TestJwtFactory.jwtWithRole("test-user", "user", "reader"))
+                        .param("cursor", "not-a-cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldExportFilteredPaymentsAsCsv() throws Exception {
+        final MvcResult result = mockMvc.perform(get("/payments/export")
+                        .with(TestJwtFactory.jwtWithRole("test-user", "user", "reader"))
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        final String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"payments.csv\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        final List<String> lines = body.lines().toList();
+        assertThat(lines.getFirst()).isEqualTo(
+                "guid,inquiry_ref_id,amount,currency,transaction_ref_id,status,note,created_at,updated_at");
+        assertThat(lines).anyMatch(line -> line.startsWith("00000000-0000-0000-0000-000000000001,"));
+        assertThat(lines.size() - 1).isEqualTo(paymentRepository.count());
+    }
+
+    @Test
+    void shouldExportPaymentsAsNdjson() throws Exception {
+        final MvcResult result = mockMvc.perform(get("/payments/export")
+                        .with(TestJwtFactory.jwtWithRole("test-user", "user", "reader"))
+                        .param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        final String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        final List<PaymentDto> exported = body.lines()
+                .map(line -> objectMapper.readValue(line, PaymentDto.class))
+                .toList();
+        assertThat(exported).hasSize((int) paymentRepository.count());
+        assertThat(exported)
+                .extracting(PaymentDto::getGuid)
+                .contains(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    }
+
+    @Test
+    void shouldRejectUnknownExportFormat() throws Exception {
+        mockMvc.perform(get("/payments/export")
+                        .with(TestJwtFactory.jwtWithRole("test-user", "user", "reader"))
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldCreatePaymentAndVerifyInDatabase() throws Exception {
         final Instant now = Instant.parse("2026-01-01T10:15:30Z");
@@ -99,6 +210,43 @@ class PaymentControllerIntegrationTest extends AbstractPostgresIntegrationTest {
         assertThat(saved.get().getNote()).isEqualTo("integration test payment");
     }
 
+    @Test
+    void shouldCreatePaymentBatchAndReportRejectedItems() throws Exception {
+        final UUID validGuid = UUID.randomUUID();
+        final UUID invalidGuid = UUID.randomUUID();
+
+        final String json = objectMapper.writeValueAsString(List.of(
+                PaymentDto.builder()
+                        .guid(validGuid)
+                        .inquiryRefId(UUID.randomUUID())
+                        .amount(new BigDecimal("25.00"))
+                        .currency("USD")
+                        .status(PaymentStatus.RECEIVED)
+                        .build(),
+                PaymentDto.builder()
+                        .guid(invalidGuid)
+                        .inquiryRefId(UUID.randomUUID())
+                        .amount(new BigDecimal("25.00"))
+                        .currency("XYZ")
+                        .status(PaymentStatus.RECEIVED)
+                        .build()
+        ));
+
+        mockMvc.perform(post("/payments/batch")
+                        .with(TestJwtFactory.jwtWithRole("test-user", "user", "admin"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.items[1].errors[0]").value("Unknown currency code: XYZ"));
+
+        assertThat(paymentRepository.findById(validGuid)).isPresent();
+        assertThat(paymentRepository.findById(invalidGuid)).isEmpty();
+    }
+
     @Test
     void shouldReturnPaymentById() throws Exception {
         final UUID existingId = UUID.fromString("00000000-0000-0000-0000-000000000002");
@@ -112,6 +260,39 @@ class PaymentControllerIntegrationTest extends AbstractPostgresIntegrationTest {
                 .andExpect(jsonPath("$.amount").value(50.00));
     }
 
+    @Test
+    void shouldServeFreshPaymentAfterAdapterResponse() throws Exception {
+        final Payment payment = new Payment();
+        payment.setGuid(UUID.randomUUID());
+        payment.setInquiryRefId(UUID.randomUUID());
+        payment.setAmount(new BigDecimal("42.00"));
+        payment.setCurrency("USD");
+        payment.setStatus(PaymentStatus.PENDING);
+        paymentRepository.save(payment);
+
+        mockMvc.perform(get("/payments/{id}", payment.getGuid())
+                        .with(TestJwtFactory.jwtWithRole("test-user", "user", "reader"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        final XPaymentAdapterResponseMessage response = XPaymentAdapterResponseMessage.builder()
+                .paymentGuid(payment.getGuid())
+                .amount(new BigDecimal("42.00"))
+                .currency("USD")
+                .transactionRefId(UUID.randomUUID())
+                .status(XPaymentAdapterStatus.SUCCEEDED)
+                .occurredAt(Instant.now())
+                .build();
+        responseHandler.handle(response);
+
+        mockMvc.perform(get("/payments/{id}", payment.getGuid())
+                        .with(TestJwtFactory.jwtWithRole("test-user", "user", "reader"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+    }
+
     @Test
     void shouldReturn404ForNonexistentPayment() throws Exception {
         final UUID nonexistentId = UUID.randomUUID();
@@ -0,0 +1,253 @@
+package com.iprody.payment.service.app.datasource;
+
+import com.iprody.payment.service.app.dto.PaymentDto;
+import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
+import com.iprody.payment.service.app.service.PaymentCache;
+import com.iprody.payment.service.app.service.PaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.MountableFile;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against a primary and a hot standby streaming from it, and tells them apart by {@code pg_is_in_recovery()}.
+ */
+@SpringBootTest(properties = {
+    "app.datasource.replica.enabled=true",
+    "app.datasource.replica.max-lag-ms=1000",
+    "app.datasource.replica.lag-check-interval-ms=3600000"
+})
+class ReplicaRoutingDataSourceIntegrationTest {
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    private static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withDatabaseName("payment-db")
+        .withUsername("admin")
+        .withPassword("secret")
+        .withNetwork(NETWORK)
+        .withNetworkAliases("primary")
+        .withCopyFileToContainer(
+            MountableFile.forHostPath("postgres/allow-replication.sh"),
+            "/docker-entrypoint-initdb.d/allow-replication.sh"
+        );
+
+    private static final GenericContainer<?> REPLICA = new GenericContainer<>("postgres:16-alpine")
+        .withNetwork(NETWORK)
+        .withEnv("PGPASSWORD", "secret")
+        .withExposedPorts(5432)
+        .withCommand("bash", "-c", """
+            until pg_basebackup -h primary -U admin -D "$PGDATA" -R -X stream; do
+                rm -rf "$PGDATA"/*
+                sleep 1
+            done
+            exec docker-entrypoint.sh postgres
+            """)
+        .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1))
+        .withStartupTimeout(Duration.ofSeconds(200));
+
+    static {
+        PRIMARY.start();
+        REPLICA.start();
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentCache paymentCache;
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        registry.add("spring.datasource.username", PRIMARY::getUsername);
+        registry.add("spring.datasource.password", PRIMARY::getPassword);
+        registry.add("app.datasource.replica.urls", () -> String.format(
+            "jdbc:postgresql://%s:%d/payment-db", REPLICA.getHost(), REPLICA.getMappedPort(5432)));
+        registry.add("spring.liquibase.change-log", () -> "classpath:/db/changelog/db.test-changelog-master.yaml");
+    }
+
+    @AfterEach
+    void clearClient() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldRunOnReplica() {
+        // given
+        replicaLagMonitor.check();
+
+        // when
+        final boolean onReplica = inRecovery(true);
+
+        // then
+        assertThat(onReplica).isTrue();
+    }
+
+    @Test
+    void readWriteTransaction_shouldRunOnPrimary() {
+        // given
+        replicaLagMonitor.check();
+
+        // when
+        final boolean onReplica = inRecovery(false);
+
+        // then
+        assertThat(onReplica).isFalse();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldStayOnPrimary_afterClientsOwnWrite() {
+        // given
+        replicaLagMonitor.check();
+        actAs("writer");
+        inRecovery(false);
+
+        // when
+        final boolean writerOnReplica = inRecovery(true);
+        actAs("reader");
+        final boolean readerOnReplica = inRecovery(true);
+
+        // then
+        assertThat(writerOnReplica).isFalse();
+        assertThat(readerOnReplica).isTrue();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldFallBackToPrimary_whenReplicaLags() throws Exception {
+        // given
+        replicaLagMonitor.check();
+        final JdbcTemplate replica = new JdbcTemplate(replicaDataSource());
+        replica.execute("SELECT pg_wal_replay_pause()");
+        try {
+            jdbcTemplate.update("CREATE TABLE IF NOT EXISTS replication_probe (id int)");
+            jdbcTemplate.update("INSERT INTO replication_probe VALUES (1)");
+
+            // when
+            final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            do {
+                Thread.sleep(100);
+                replicaLagMonitor.check();
+            } while (inRecovery(true) && System.nanoTime() < deadline);
+
+            // then
+            assertThat(inRecovery(true)).isFalse();
+        } finally {
+            replica.execute("SELECT pg_wal_replay_resume()");
+        }
+    }
+
+    @Test
+    void readOnlyTransaction_shouldFallBackToPrimary_whenReplicaStopsStreaming() throws Exception {
+        // given
+        replicaLagMonitor.check();
+        final JdbcTemplate replica = new JdbcTemplate(replicaDataSource());
+        final String primaryConninfo = replica.queryForObject("SHOW primary_conninfo", String.class);
+        replica.execute("ALTER SYSTEM SET primary_conninfo = ''");
+        replica.execute("SELECT pg_reload_conf()");
+        try {
+            awaitReceiver(replica, false);
+
+            // when
+            replicaLagMonitor.check();
+
+            // then
+            assertThat(inRecovery(true)).isFalse();
+        } finally {
+            replica.update("ALTER SYSTEM SET primary_conninfo = '" + primaryConninfo.replace("'", "''") + "'");
+            replica.execute("SELECT pg_reload_conf()");
+            awaitReceiver(replica, true);
+        }
+    }
+
+    @Test
+    void get_shouldReadFromPrimary_whenEvictedPaymentIsReloadedWhileReplicaLags() throws Exception {
+        // given
+        replicaLagMonitor.check();
+        final UUID id = paymentService.create(PaymentDto.builder()
+            .guid(UUID.randomUUID())
+            .inquiryRefId(UUID.randomUUID())
+            .amount(new BigDecimal("10.00"))
+            .currency("USD")
+            .status(PaymentStatus.PENDING)
+            .build()).getGuid();
+        final JdbcTemplate replica = new JdbcTemplate(replicaDataSource());
+        final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (replica.queryForObject("SELECT count(*) FROM payment WHERE guid = ?", Integer.class, id) == 0
+            && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        paymentService.get(id);
+        replica.execute("SELECT pg_wal_replay_pause()");
+        try {
+            jdbcTemplate.update("UPDATE payment SET status = 'APPROVED' WHERE guid = ?", id);
+            paymentCache.evict(id);
+
+            // when
+            final PaymentDto reloaded = paymentService.get(id);
+
+            // then
+            assertThat(reloaded.getStatus()).isEqualTo(PaymentStatus.APPROVED);
+        } finally {
+            replica.execute("SELECT pg_wal_replay_resume()");
+        }
+    }
+
+    private boolean inRecovery(boolean readOnly) {
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return Boolean.TRUE.equals(transaction.execute(status ->
+            jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class)));
+    }
+
+    private static void awaitReceiver(JdbcTemplate replica, boolean streaming) throws InterruptedException {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!Boolean.valueOf(streaming).equals(replica.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming')", Boolean.class))
+            && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private static DataSource replicaDataSource() {
+        final PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setURL(String.format(
+            "jdbc:postgresql://%s:%d/payment-db", REPLICA.getHost(), REPLICA.getMappedPort(5432)));
+        dataSource.setUser("admin");
+        dataSource.setPassword("secret");
+        return dataSource;
+    }
+
+    private static void actAs(String client) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(client, null, "ROLE_user"));
+    }
+}
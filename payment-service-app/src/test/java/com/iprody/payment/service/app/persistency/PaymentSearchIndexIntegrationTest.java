@@ -0,0 +1,118 @@
+package com.iprody.payment.service.app.persistency;
+
+import com.iprody.payment.service.app.AbstractPostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks on a seeded table that the planner picks the search indexes of changeset 005 for the predicates
+ * {@code PaymentFilterFactory} builds.
+ */
+class PaymentSearchIndexIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    private static final int SEEDED_ROWS = 100_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        final Integer seeded = jdbcTemplate.queryForObject("SELECT count(*) FROM payment", Integer.class);
+        if (seeded != null && seeded >= SEEDED_ROWS) {
+            return;
+        }
+
+        // created_at grows with insertion order; roughly 2% of the rows are still in flight
+        jdbcTemplate.update("""
+            INSERT INTO payment (guid, inquiry_ref_id, amount, currency, status, created_at, updated_at, version)
+            SELECT gen_random_uuid(), gen_random_uuid(), (i % 99999) / 100.0,
+                   (ARRAY['USD', 'EUR', 'GBP', 'CZK', 'JPY', 'PLN', 'CHF', 'SEK'])[i % 8 + 1],
+                   CASE
+                       WHEN i % 97 = 0 THEN 'PENDING'
+                       WHEN i % 89 = 0 THEN 'RECEIVED'
+                       WHEN (i / 8) % 2 = 0 THEN 'APPROVED'
+                       ELSE 'DECLINED'
+                   END,
+                   TIMESTAMPTZ '2024-01-01 00:00:00+00' + i * INTERVAL '1 minute',
+                   TIMESTAMPTZ '2024-01-01 00:00:00+00' + i * INTERVAL '1 minute',
+                   0
+            FROM generate_series(1, ?) AS i
+            """, SEEDED_ROWS);
+        jdbcTemplate.execute("ANALYZE payment");
+    }
+
+    @Test
+    void keysetSearchByCurrencyAndStatus_shouldUseCompositeIndex() {
+        // when
+        final String plan = explain("""
+            SELECT * FROM payment
+            WHERE currency = 'EUR' AND status = 'PENDING'
+            ORDER BY updated_at DESC, guid DESC
+            LIMIT 26
+            """);
+
+        // then
+        assertThat(plan).contains("idx_payment_currency_status_updated_at_guid").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void amountRangeByCurrency_shouldUseCurrencyAmountIndex() {
+        // when
+        final String plan = explain("""
+            SELECT count(*) FROM payment
+            WHERE currency = 'USD' AND amount >= 100.00 AND amount <= 110.00
+            """);
+
+        // then
+        assertThat(plan).contains("idx_payment_currency_amount").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void createdRangeByStatus_shouldUseStatusCreatedAtIndex() {
+        // when
+        final String plan = explain("""
+            SELECT * FROM payment
+            WHERE status = 'DECLINED'
+              AND created_at >= TIMESTAMPTZ '2024-02-01 00:00:00+00'
+              AND created_at <= TIMESTAMPTZ '2024-02-02 00:00:00+00'
+            """);
+
+        // then
+        assertThat(plan).contains("idx_payment_status_created_at").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void createdRange_shouldUseBrinIndex() {
+        // when
+        final String plan = explain("""
+            SELECT * FROM payment
+            WHERE created_at >= TIMESTAMPTZ '2024-02-01 00:00:00+00'
+              AND created_at <= TIMESTAMPTZ '2024-02-02 00:00:00+00'
+            """);
+
+        // then
+        assertThat(plan).contains("idx_payment_created_at_brin").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void inFlightWorklist_shouldUsePartialIndex() {
+        // when
+        final String plan = explain("""
+            SELECT * FROM payment
+            WHERE status IN ('RECEIVED', 'PENDING')
+            ORDER BY updated_at
+            LIMIT 100
+            """);
+
+        // then
+        assertThat(plan).contains("idx_payment_in_flight_updated_at").doesNotContain("Seq Scan");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
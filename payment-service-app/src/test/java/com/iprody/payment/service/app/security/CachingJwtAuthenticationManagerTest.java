@@ -0,0 +1,76 @@
+package com.iprody.payment.service.app.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtAuthenticationManagerTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private CachingJwtAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new CachingJwtAuthenticationManager(delegate, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void authenticate_shouldValidateTokenOnlyOnce() {
+        // given
+        final Jwt jwt = Jwt.withTokenValue("token-a")
+            .header("alg", "RS256")
+            .subject("123")
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(300))
+            .build();
+        when(delegate.authenticate(any())).thenReturn(
+            new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_reader")), "123"));
+
+        // when
+        final Authentication first = manager.authenticate(new BearerTokenAuthenticationToken("token-a"));
+        final Authentication second = manager.authenticate(new BearerTokenAuthenticationToken("token-a"));
+
+        // then
+        verify(delegate, times(1)).authenticate(any());
+        assertEquals(first.getName(), second.getName());
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+    }
+
+    @Test
+    void authenticate_shouldNotCacheRejectedTokens() {
+        // given
+        when(delegate.authenticate(any())).thenThrow(new InvalidBearerTokenException("bad signature"));
+
+        // when
+        assertThrows(InvalidBearerTokenException.class,
+            () -> manager.authenticate(new BearerTokenAuthenticationToken("token-b")));
+        assertThrows(InvalidBearerTokenException.class,
+            () -> manager.authenticate(new BearerTokenAuthenticationToken("token-b")));
+
+        // then
+        verify(delegate, times(2)).authenticate(any());
+    }
+}
@@ -1,16 +1,19 @@
 package com.iprody.payment.service.app.service;
 
-import com.iprody.payment.service.app.async.AsyncSender;
-import com.iprody.payment.service.app.async.XPaymentAdapterRequestMessage;
+import com.iprody.payment.service.app.dto.PaymentBatchItemStatus;
+import com.iprody.payment.service.app.dto.PaymentBatchResultDto;
 import com.iprody.payment.service.app.dto.PaymentDto;
 import com.iprody.payment.service.app.exception.EntityNotFoundException;
+import com.iprody.payment.service.app.exception.InvalidRequestException;
 import com.iprody.payment.service.app.exception.Operation;
 import com.iprody.payment.service.app.mapper.PaymentMapper;
 import com.iprody.payment.service.app.mapper.XPaymentAdapterMapper;
 import com.iprody.payment.service.app.persistence.PaymentFilter;
 import com.iprody.payment.service.app.persistence.entity.Payment;
+import com.iprody.payment.service.app.persistence.entity.PaymentOutbox;
 import com.iprody.payment.service.app.persistence.entity.PaymentStatus;
 import com.iprody.payment.service.app.persistency.PaymentFilterFactory;
+import com.iprody.payment.service.app.persistency.PaymentOutboxRepository;
 import com.iprody.payment.service.app.persistency.PaymentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +24,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -30,6 +34,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -63,7 +68,10 @@ class PaymentServiceTest {
     private XPaymentAdapterMapper xPaymentAdapterMapper;
 
     @Mock
-    private AsyncSender<XPaymentAdapterRequestMessage> sender;
+    private PaymentOutboxRepository paymentOutboxRepository;
+
+    @Spy
+    private PaymentValidator paymentValidator = new PaymentValidator(new BigDecimal("999.99"));
 
     @InjectMocks
     private PaymentServiceImpl paymentService;
@@ -312,6 +320,7 @@ class PaymentServiceTest {
     void create_shouldSaveAndReturnDto() {
         // given
         final PaymentDto input = PaymentDto.builder()
+            .guid(guid)
             .inquiryRefId(UUID.randomUUID())
             .amount(new BigDecimal("10.00"))
             .currency("USD")
@@ -330,12 +339,12 @@ class PaymentServiceTest {
             .status(PaymentStatus.PENDING)
             .build();
 
-        final XPaymentAdapterRequestMessage requestMessage = new XPaymentAdapterRequestMessage();
+        final PaymentOutbox outbox = new PaymentOutbox();
 
         when(paymentMapper.toEntity(input)).thenReturn(entityToSave);
         when(paymentRepository.save(entityToSave)).thenReturn(savedEntity);
         when(paymentMapper.toDto(savedEntity)).thenReturn(outDto);
-        when(xPaymentAdapterMapper.toXPaymentAdapterRequestMessage(entityToSave)).thenReturn(requestMessage);
+        when(xPaymentAdapterMapper.toOutbox(savedEntity)).thenReturn(outbox);
 
         // when
         final PaymentDto result = paymentService.create(input);
@@ -345,15 +354,112 @@ class PaymentServiceTest {
         verify(paymentMapper).toEntity(input);
         verify(paymentRepository).save(entityToSave);
         verify(paymentMapper).toDto(savedEntity);
-        verify(xPaymentAdapterMapper).toXPaymentAdapterRequestMessage(entityToSave);
-        verify(sender).send(requestMessage);
-        verifyNoMoreInteractions(paymentRepository, paymentMapper, xPaymentAdapterMapper, sender);
+        verify(xPaymentAdapterMapper).toOutbox(savedEntity);
+        verify(paymentOutboxRepository).save(outbox);
+        verifyNoMoreInteractions(paymentRepository, paymentMapper, xPaymentAdapterMapper, paymentOutboxRepository);
+    }
+
+    @Test
+    void create_shouldThrowInvalidRequestException_whenPaymentIsInvalid() {
+        // given
+        final PaymentDto input = batchItem(guid, "10.00", "XYZ");
+
+        // when & then
+        final InvalidRequestException ex = assertThrows(
+            InvalidRequestException.class,
+            () -> paymentService.create(input)
+        );
+        assertEquals(Operation.CREATE_OP, ex.getOperation());
+        assertEquals("Unknown currency code: XYZ", ex.getMessage());
+        verifyNoMoreInteractions(paymentRepository, paymentOutboxRepository);
+    }
+
+    @Test
+    void createBatch_shouldSaveValidItemsAndRejectInvalidOnes() {
+        // given
+        ReflectionTestUtils.setField(paymentService, "maxBatchSize", 10);
+
+        final UUID existingGuid = UUID.randomUUID();
+        final PaymentDto valid = batchItem(UUID.randomUUID(), "10.00", "USD");
+        final PaymentDto unknownCurrency = batchItem(UUID.randomUUID(), "10.00", "XYZ");
+        final PaymentDto alreadyExists = batchItem(existingGuid, "10.00", "USD");
+
+        final Payment existing = new Payment();
+        existing.setGuid(existingGuid);
+        final Payment entity = new Payment();
+        entity.setGuid(valid.getGuid());
+        final PaymentOutbox outbox = new PaymentOutbox();
+
+        when(paymentRepository.findAllById(any())).thenReturn(List.of(existing));
+        when(paymentMapper.toEntity(valid)).thenReturn(entity);
+        when(paymentRepository.saveAll(List.of(entity))).thenReturn(List.of(entity));
+        when(xPaymentAdapterMapper.toOutbox(entity)).thenReturn(outbox);
+        when(paymentMapper.toDto(entity)).thenReturn(valid);
+
+        // when
+        final PaymentBatchResultDto result = paymentService.createBatch(List.of(valid, unknownCurrency, alreadyExists));
+
+        // then
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertEquals(PaymentBatchItemStatus.CREATED, result.getItems().get(0).getStatus());
+        assertEquals(PaymentBatchItemStatus.REJECTED, result.getItems().get(1).getStatus());
+        assertEquals(PaymentBatchItemStatus.REJECTED, result.getItems().get(2).getStatus());
+        verify(paymentOutboxRepository).saveAll(List.of(outbox));
+    }
+
+    @Test
+    void createBatch_shouldThrowInvalidRequestException_whenBatchIsTooLarge() {
+        // given
+        ReflectionTestUtils.setField(paymentService, "maxBatchSize", 1);
+        final List<PaymentDto> batch = List.of(
+            batchItem(UUID.randomUUID(), "10.00", "USD"),
+            batchItem(UUID.randomUUID(), "10.00", "USD")
+        );
+
+        // when & then
+        final InvalidRequestException ex = assertThrows(
+            InvalidRequestException.class,
+            () -> paymentService.createBatch(batch)
+        );
+        assertEquals(Operation.CREATE_OP, ex.getOperation());
+        verifyNoMoreInteractions(paymentRepository, paymentOutboxRepository);
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidSearchSizes")
+    void searchAfter_shouldThrowInvalidRequestException_whenSizeIsOutOfRange(int size) {
+        // given
+        ReflectionTestUtils.setField(paymentService, "maxSearchSize", 100);
+        final PaymentFilter filter = new PaymentFilter(null, null, null, null, null, null);
+
+        // when & then
+        final InvalidRequestException ex = assertThrows(
+            InvalidRequestException.class,
+            () -> paymentService.searchAfter(filter, null, size)
+        );
+        assertEquals(Operation.FIND_ALL_OP, ex.getOperation());
+        verifyNoMoreInteractions(paymentRepository);
+    }
+
+    static Stream<Integer> invalidSearchSizes() {
+        return Stream.of(-1, 0, 101);
+    }
+
+    private static PaymentDto batchItem(UUID guid, String amount, String currency) {
+        return PaymentDto.builder()
+            .guid(guid)
+            .inquiryRefId(UUID.randomUUID())
+            .amount(new BigDecimal(amount))
+            .currency(currency)
+            .status(PaymentStatus.RECEIVED)
+            .build();
     }
 
     @Test
     void update_shouldThrowEntityNotFoundException_whenMissing() {
         // given
-        when(paymentRepository.existsById(guid)).thenReturn(false);
+        when(paymentRepository.findById(guid)).thenReturn(Optional.empty());
 
         // when
         final EntityNotFoundException ex =
@@ -363,14 +469,15 @@ class PaymentServiceTest {
         assertEquals("Payment not found for given id", ex.getMessage());
         assertEquals(Operation.UPDATE_OP, ex.getOperation());
         assertEquals(guid, ex.getEntityId());
-        verify(paymentRepository).existsById(guid);
+        verify(paymentRepository).findById(guid);
         verifyNoMoreInteractions(paymentRepository, paymentMapper);
     }
 
     @Test
     void update_shouldSaveWithGuidAndReturnDto_whenExists() {
         // given
-        when(paymentRepository.existsById(guid)).thenReturn(true);
+        payment.setVersion(3L);
+        when(paymentRepository.findById(guid)).thenReturn(Optional.of(payment));
 
         final Payment mappedEntity = new Payment();
         final Payment savedEntity = new Payment();
@@ -396,8 +503,9 @@ class PaymentServiceTest {
 
         final Payment argToSave = captor.getValue();
         assertEquals(guid, argToSave.getGuid(), "Service must set guid before save");
+        assertEquals(3L, argToSave.getVersion(), "Service must carry over the current version");
 
-        verify(paymentRepository).existsById(guid);
+        verify(paymentRepository).findById(guid);
         verify(paymentMapper).toEntity(paymentDto);
         verify(paymentRepository).save(any(Payment.class));
         verify(paymentMapper).toDto(savedEntity);
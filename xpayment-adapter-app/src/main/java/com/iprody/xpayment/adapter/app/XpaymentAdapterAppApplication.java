@@ -2,8 +2,10 @@ package com.iprody.xpayment.adapter.app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class XpaymentAdapterAppApplication {
 
     public static void main(String[] args) {
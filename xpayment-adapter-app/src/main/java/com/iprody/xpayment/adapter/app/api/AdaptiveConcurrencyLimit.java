@@ -0,0 +1,103 @@
+package com.iprody.xpayment.adapter.app.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limit for provider calls. A call that fails or takes longer than the latency threshold
+ * multiplies the limit by {@code backoffRatio}; calls that complete in time grow it by one per {@code limit}
+ * completions, and only while at least half of the limit is in use. Callers wait up to the acquire timeout
+ * for a free slot.
+ */
+class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private volatile double limit;
+    private volatile int inFlight;
+
+    AdaptiveConcurrencyLimit(
+        int minLimit,
+        int initialLimit,
+        int maxLimit,
+        long latencyThresholdMs,
+        double backoffRatio
+    ) {
+        if (minLimit < 1 || minLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException(
+                "Limits must satisfy 1 <= min <= max and backoffRatio must be in (0, 1)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return false if no slot became free within the timeout
+     */
+    boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the slot of a completed call and adjusts the limit to its outcome.
+     */
+    void release(long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            final int used = inFlight;
+            inFlight = used - 1;
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (used * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the slot of a call that never reached the provider, leaving the limit as is.
+     */
+    void cancel() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,19 @@
+package com.iprody.xpayment.adapter.app.api;
+
+import com.iprody.xpayment.adapter.app.dto.ChargeResponseDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Outcome of a batch charge retrieval: the charges the provider returned and the ids that couldn't be fetched
+ * and have to be asked for again. Ids in neither are unknown to the provider.
+ */
+public record ChargeRetrieval(List<ChargeResponseDto> charges, Set<UUID> failed) {
+
+    public static ChargeRetrieval failed(Collection<UUID> ids) {
+        return new ChargeRetrieval(List.of(), Set.copyOf(ids));
+    }
+}
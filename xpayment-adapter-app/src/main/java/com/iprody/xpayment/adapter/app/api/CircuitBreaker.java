@@ -0,0 +1,146 @@
+package com.iprody.xpayment.adapter.app.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. It opens once the failure rate over the last {@code windowSize} calls reaches
+ * the threshold (after at least {@code minimumCalls}), rejects calls for {@code openDuration}, then lets
+ * {@code halfOpenCalls} trial calls through: all of them have to succeed to close it again, and any failure
+ * reopens it.
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    CircuitBreaker(
+        String name,
+        double failureRateThreshold,
+        int windowSize,
+        int minimumCalls,
+        long openDurationMs,
+        int halfOpenCalls,
+        LongSupplier nanoClock
+    ) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException(
+                "Circuit breaker needs 1 <= minimumCalls <= windowSize and at least one half-open call");
+        }
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        return switch (currentState()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (halfOpenPermits == 0) {
+                    yield false;
+                }
+                halfOpenPermits--;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                log.info("Circuit {} closed after {} successful trial calls", name, halfOpenSuccesses);
+                reset(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            log.warn("Circuit {} reopened, trial call failed", name);
+            open();
+            return;
+        }
+        record(true);
+    }
+
+    /**
+     * Moves an open circuit to half-open once the open duration has passed.
+     */
+    synchronized State state() {
+        return currentState();
+    }
+
+    private State currentState() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openDurationNanos) {
+            reset(State.HALF_OPEN);
+            halfOpenPermits = halfOpenCalls;
+        }
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (state != State.CLOSED) {
+            return;
+        }
+
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+
+        if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+            log.warn("Circuit {} opened, {} of the last {} calls failed", name, failures, recorded);
+            open();
+        }
+    }
+
+    private void open() {
+        reset(State.OPEN);
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void reset(State newState) {
+        state = newState;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+    }
+}
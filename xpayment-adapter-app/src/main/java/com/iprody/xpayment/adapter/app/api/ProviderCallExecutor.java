@@ -0,0 +1,84 @@
+package com.iprody.xpayment.adapter.app.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs X Payment provider calls off the listener and scheduler threads. In virtual-thread mode every call
+ * gets its own virtual thread and the number of in-flight calls is capped at the per-host connection limit;
+ * the permit is taken on the submitting thread, so a saturated provider slows down consumption instead of
+ * piling up blocked calls. With virtual threads disabled calls run inline on the caller, as before.
+ */
+@Component
+public class ProviderCallExecutor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderCallExecutor.class);
+
+    private final boolean virtualThreads;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+
+    public ProviderCallExecutor(
+        @Value("${app.x-payment-api.client.virtual-threads:true}") boolean virtualThreads,
+        @Value("${app.x-payment-api.client.max-connections-per-host:500}") int maxConcurrentCalls
+    ) {
+        this.virtualThreads = virtualThreads;
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.executor = virtualThreads
+            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("xpayment-call-", 0).factory())
+            : null;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        if (!virtualThreads) {
+            try {
+                return CompletableFuture.completedFuture(call.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return call.get();
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            permits.release();
+            log.error("Failed to dispatch provider call", e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public CompletableFuture<Void> run(Runnable call) {
+        return submit(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+}
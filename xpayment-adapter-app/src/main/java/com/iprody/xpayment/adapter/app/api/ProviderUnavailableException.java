@@ -0,0 +1,14 @@
+package com.iprody.xpayment.adapter.app.api;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown without calling the provider when its circuit is open or no concurrency slot is free. The request
+ * is still valid and should be retried later rather than cancelled.
+ */
+public class ProviderUnavailableException extends RestClientException {
+
+    public ProviderUnavailableException(String message) {
+        super(message);
+    }
+}
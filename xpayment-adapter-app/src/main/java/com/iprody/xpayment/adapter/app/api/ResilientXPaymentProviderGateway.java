@@ -0,0 +1,175 @@
+package com.iprody.xpayment.adapter.app.api;
+
+import com.iprody.xpayment.adapter.app.dto.ChargeRequestDto;
+import com.iprody.xpayment.adapter.app.dto.ChargeResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guards {@link XPaymentProviderGatewayImpl} with an adaptive concurrency limit and a circuit breaker per
+ * bulkhead: charge creation and charge retrieval have separate limits and circuits, so status polling can't
+ * take the slots new charges need. Rejected calls fail fast with {@link ProviderUnavailableException}.
+ * Provider errors (5xx, I/O) trip the circuit; they and calls slower than the latency threshold shrink the
+ * limit. 4xx responses count as healthy calls.
+ */
+@Primary
+@Service
+public class ResilientXPaymentProviderGateway implements XPaymentProviderGateway {
+
+    private final XPaymentProviderGatewayImpl delegate;
+    private final MeterRegistry meterRegistry;
+    private final long acquireTimeoutMs;
+    private final long rejectionPauseMs;
+
+    private final Bulkhead charges;
+    private final Bulkhead retrievals;
+
+    private volatile long chargesRejectedUntil;
+
+    ResilientXPaymentProviderGateway(
+        XPaymentProviderGatewayImpl delegate,
+        MeterRegistry meterRegistry,
+        @Value("${app.x-payment-api.resilience.charge.max-concurrency:200}") int chargeMaxConcurrency,
+        @Value("${app.x-payment-api.resilience.retrieval.max-concurrency:50}") int retrievalMaxConcurrency,
+        @Value("${app.x-payment-api.resilience.min-concurrency:2}") int minConcurrency,
+        @Value("${app.x-payment-api.resilience.initial-concurrency:20}") int initialConcurrency,
+        @Value("${app.x-payment-api.resilience.latency-threshold-ms:2000}") long latencyThresholdMs,
+        @Value("${app.x-payment-api.resilience.backoff-ratio:0.9}") double backoffRatio,
+        @Value("${app.x-payment-api.resilience.acquire-timeout-ms:5000}") long acquireTimeoutMs,
+        @Value("${app.x-payment-api.resilience.rejection-pause-ms:1000}") long rejectionPauseMs,
+        @Value("${app.x-payment-api.resilience.circuit-breaker.failure-rate-threshold:0.5}") double failureRate,
+        @Value("${app.x-payment-api.resilience.circuit-breaker.window-size:50}") int windowSize,
+        @Value("${app.x-payment-api.resilience.circuit-breaker.minimum-calls:20}") int minimumCalls,
+        @Value("${app.x-payment-api.resilience.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+        @Value("${app.x-payment-api.resilience.circuit-breaker.half-open-calls:5}") int halfOpenCalls
+    ) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.rejectionPauseMs = rejectionPauseMs;
+
+        this.charges = new Bulkhead(
+            "charge",
+            new AdaptiveConcurrencyLimit(minConcurrency, initialConcurrency, chargeMaxConcurrency,
+                latencyThresholdMs, backoffRatio),
+            new CircuitBreaker("charge", failureRate, windowSize, minimumCalls, openDurationMs, halfOpenCalls,
+                System::nanoTime)
+        );
+        this.retrievals = new Bulkhead(
+            "retrieval",
+            new AdaptiveConcurrencyLimit(minConcurrency, initialConcurrency, retrievalMaxConcurrency,
+                latencyThresholdMs, backoffRatio),
+            new CircuitBreaker("retrieval", failureRate, windowSize, minimumCalls, openDurationMs, halfOpenCalls,
+                System::nanoTime)
+        );
+
+        registerGauges(charges);
+        registerGauges(retrievals);
+    }
+
+    @Override
+    public ChargeResponseDto createCharge(ChargeRequestDto createChargeRequest) {
+        return call(charges, () -> delegate.createCharge(createChargeRequest));
+    }
+
+    @Override
+    public ChargeResponseDto retrieveCharge(UUID id) {
+        return call(retrievals, () -> delegate.retrieveCharge(id));
+    }
+
+    /**
+     * Takes a retrieval slot for every provider call of the batch: one per chunk and one per single retrieval
+     * on fallback. Charges whose call was rejected or failed are reported as failed.
+     */
+    @Override
+    public ChargeRetrieval retrieveCharges(Collection<UUID> ids) {
+        return delegate.retrieveCharges(ids, this::retrieval);
+    }
+
+    /**
+     * @return false while the charge circuit is open, or for {@code rejection-pause-ms} after a charge was
+     * rejected
+     */
+    public boolean acceptsCharges() {
+        return charges.circuit().state() != CircuitBreaker.State.OPEN
+            && System.currentTimeMillis() >= chargesRejectedUntil;
+    }
+
+    private <T> T retrieval(Supplier<T> call) {
+        return call(retrievals, call);
+    }
+
+    private <T> T call(Bulkhead bulkhead, Supplier<T> call) {
+        try {
+            if (!bulkhead.limit().tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejected(bulkhead, "limit");
+                throw new ProviderUnavailableException(
+                    "No " + bulkhead.name() + " slot available within " + acquireTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderUnavailableException("Interrupted waiting for a " + bulkhead.name() + " slot");
+        }
+
+        if (!bulkhead.circuit().tryAcquirePermission()) {
+            bulkhead.limit().cancel();
+            rejected(bulkhead, "circuit");
+            throw new ProviderUnavailableException("Circuit " + bulkhead.name() + " is open");
+        }
+
+        final long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            failed = !XPaymentProviderGatewayImpl.isClientError(e);
+            throw e;
+        } finally {
+            final long latency = System.nanoTime() - start;
+            bulkhead.limit().release(latency, failed);
+            if (failed) {
+                bulkhead.circuit().onFailure();
+            } else {
+                bulkhead.circuit().onSuccess();
+            }
+        }
+    }
+
+    private void rejected(Bulkhead bulkhead, String reason) {
+        if (bulkhead == charges) {
+            chargesRejectedUntil = System.currentTimeMillis() + rejectionPauseMs;
+        }
+        Counter.builder("xpayment.provider.rejected")
+            .description("Provider calls rejected without reaching the provider")
+            .tag("bulkhead", bulkhead.name())
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private void registerGauges(Bulkhead bulkhead) {
+        Gauge.builder("xpayment.provider.concurrency.limit", bulkhead.limit(), AdaptiveConcurrencyLimit::limit)
+            .description("Current adaptive concurrency limit for provider calls")
+            .tag("bulkhead", bulkhead.name())
+            .register(meterRegistry);
+        Gauge.builder("xpayment.provider.concurrency.in-flight", bulkhead.limit(), AdaptiveConcurrencyLimit::inFlight)
+            .description("Provider calls currently in flight")
+            .tag("bulkhead", bulkhead.name())
+            .register(meterRegistry);
+        Gauge.builder("xpayment.provider.circuit.state", bulkhead.circuit(), circuit -> circuit.state().ordinal())
+            .description("Provider circuit state: 0 closed, 1 half-open, 2 open")
+            .tag("bulkhead", bulkhead.name())
+            .register(meterRegistry);
+    }
+
+    private record Bulkhead(String name, AdaptiveConcurrencyLimit limit, CircuitBreaker circuit) { }
+}
@@ -4,9 +4,16 @@ import com.iprody.xpayment.adapter.app.dto.ChargeResponseDto;
 import com.iprody.xpayment.adapter.app.dto.ChargeRequestDto;
 import org.springframework.web.client.RestClientException;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface XPaymentProviderGateway {
     ChargeResponseDto createCharge(ChargeRequestDto createChargeRequest) throws RestClientException;
     ChargeResponseDto retrieveCharge(UUID id) throws RestClientException;
+
+    /**
+     * Retrieves the given charges with as few provider calls as possible. Charges the provider doesn't know
+     * are left out of the result; charges that could not be fetched are reported as failed.
+     */
+    ChargeRetrieval retrieveCharges(Collection<UUID> ids);
 }
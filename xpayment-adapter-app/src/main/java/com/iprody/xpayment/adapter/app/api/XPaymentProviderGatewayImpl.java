@@ -6,29 +6,77 @@ import com.iprody.xpayment.adapter.app.mapper.ChargeRequestMapper;
 import com.iprody.xpayment.adapter.app.mapper.ChargeResponseMapper;
 
 import com.iprody.xpayment.app.api.client.DefaultApi;
+import com.iprody.xpayment.app.api.model.ChargeList;
 import com.iprody.xpayment.app.api.model.ChargeResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 class XPaymentProviderGatewayImpl implements XPaymentProviderGateway {
 
+    private static final Logger log = LoggerFactory.getLogger(XPaymentProviderGatewayImpl.class);
+
     private final DefaultApi defaultApi;
 
     private final ChargeRequestMapper chargeRequestMapper;
 
     private final ChargeResponseMapper chargeResponseMapper;
 
+    private final ProviderCallExecutor providerCallExecutor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int batchSize;
+
+    private final long batchProbeIntervalMs;
+
+    private volatile long batchUnsupportedUntil;
+
+    XPaymentProviderGatewayImpl(
+        DefaultApi defaultApi,
+        ChargeRequestMapper chargeRequestMapper,
+        ChargeResponseMapper chargeResponseMapper,
+        ProviderCallExecutor providerCallExecutor,
+        MeterRegistry meterRegistry,
+        @Value("${app.x-payment-api.client.batch-size:100}") int batchSize,
+        @Value("${app.x-payment-api.client.batch-probe-interval-ms:600000}") long batchProbeIntervalMs
+    ) {
+        this.defaultApi = defaultApi;
+        this.chargeRequestMapper = chargeRequestMapper;
+        this.chargeResponseMapper = chargeResponseMapper;
+        this.providerCallExecutor = providerCallExecutor;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.batchProbeIntervalMs = batchProbeIntervalMs;
+    }
+
     @Override
     public ChargeResponseDto createCharge(ChargeRequestDto chargeRequestDto) {
         try {
-            final ChargeResponse response = defaultApi.createCharge(
-                chargeRequestMapper.toEntity(chargeRequestDto));
+            final ChargeResponse response = timed("createCharge", () -> defaultApi.createCharge(
+                chargeRequestMapper.toEntity(chargeRequestDto)));
             return chargeResponseMapper.toDto(response);
         } catch (HttpClientErrorException e) {
             throw new RestClientException(
@@ -40,7 +88,7 @@ class XPaymentProviderGatewayImpl implements XPaymentProviderGateway {
     @Override
     public ChargeResponseDto retrieveCharge(UUID id) {
         try {
-            final ChargeResponse response = defaultApi.retrieveCharge(id);
+            final ChargeResponse response = timed("retrieveCharge", () -> defaultApi.retrieveCharge(id));
             return chargeResponseMapper.toDto(response);
         } catch (HttpClientErrorException e) {
             throw new RestClientException(
@@ -48,4 +96,150 @@ class XPaymentProviderGatewayImpl implements XPaymentProviderGateway {
                             id, e.getStatusCode(), e.getResponseBodyAsString()), e);
         }
     }
+
+    /**
+     * Fetches charges {@code batch-size} at a time through {@code GET /charges?ids=...}. When the provider
+     * doesn't expose the list endpoint the gateway falls back to single retrievals, run in parallel through
+     * {@link ProviderCallExecutor}, and probes the batch endpoint again after {@code batch-probe-interval-ms}.
+     */
+    @Override
+    public ChargeRetrieval retrieveCharges(Collection<UUID> ids) {
+        return retrieveCharges(ids, XPaymentProviderGatewayImpl::direct);
+    }
+
+    /**
+     * Same as {@link #retrieveCharges(Collection)}, with every provider call the retrieval makes, each batch
+     * request and each single retrieval, run through {@code guard}.
+     */
+    ChargeRetrieval retrieveCharges(Collection<UUID> ids, CallGuard guard) {
+        final List<UUID> all = List.copyOf(ids);
+        final List<CompletableFuture<ChargeRetrieval>> futures = new ArrayList<>();
+
+        for (int from = 0; from < all.size(); from += batchSize) {
+            final List<UUID> chunk = all.subList(from, Math.min(from + batchSize, all.size()));
+            futures.add(providerCallExecutor.submit(() -> guard.call(() -> listCharges(chunk)))
+                .thenCompose(result -> result != null
+                    ? CompletableFuture.completedFuture(new ChargeRetrieval(result, Set.of()))
+                    : retrieveOneByOne(chunk, guard))
+                .exceptionally(e -> {
+                    log.warn("Retrieval of {} charges failed", chunk.size(), e);
+                    return ChargeRetrieval.failed(chunk);
+                }));
+        }
+
+        final List<ChargeResponseDto> charges = new ArrayList<>(all.size());
+        final Set<UUID> failed = new HashSet<>();
+        for (CompletableFuture<ChargeRetrieval> future : futures) {
+            final ChargeRetrieval retrieval = future.join();
+            charges.addAll(retrieval.charges());
+            failed.addAll(retrieval.failed());
+        }
+        return new ChargeRetrieval(charges, failed);
+    }
+
+    /**
+     * @return the charges, or {@code null} when the provider has no batch endpoint
+     */
+    private List<ChargeResponseDto> listCharges(List<UUID> ids) {
+        if (System.currentTimeMillis() < batchUnsupportedUntil) {
+            return null;
+        }
+
+        try {
+            final ChargeList response = timed("listCharges", () -> defaultApi.listCharges(ids));
+            if (response == null || response.getData() == null) {
+                return List.of();
+            }
+            return response.getData().stream().map(chargeResponseMapper::toDto).toList();
+        } catch (HttpStatusCodeException e) {
+            if (!isBatchUnsupported(e.getStatusCode())) {
+                throw new RestClientException(
+                        String.format("GET /charges failed: HTTP %s, body: %s",
+                                e.getStatusCode(), e.getResponseBodyAsString()), e);
+            }
+            log.warn("Provider has no batch charge endpoint (HTTP {}), falling back to single retrievals",
+                e.getStatusCode());
+            batchUnsupportedUntil = System.currentTimeMillis() + batchProbeIntervalMs;
+            return null;
+        }
+    }
+
+    /**
+     * A charge the provider answers with 4xx is unknown to it; any other failure marks the charge as failed.
+     */
+    private CompletableFuture<ChargeRetrieval> retrieveOneByOne(List<UUID> ids, CallGuard guard) {
+        final List<ChargeResponseDto> charges = Collections.synchronizedList(new ArrayList<>());
+        final Set<UUID> failed = ConcurrentHashMap.newKeySet();
+
+        final CompletableFuture<?>[] futures = ids.stream()
+            .map(id -> providerCallExecutor.submit(() -> guard.call(() -> retrieveCharge(id)))
+                .handle((charge, e) -> {
+                    if (e == null) {
+                        charges.add(charge);
+                    } else if (isClientError(e)) {
+                        log.debug("Charge {} is unknown to the provider", id);
+                    } else {
+                        log.warn("Failed to retrieve charge {}", id, e);
+                        failed.add(id);
+                    }
+                    return null;
+                }))
+            .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(futures)
+            .thenApply(ignored -> new ChargeRetrieval(List.copyOf(charges), Set.copyOf(failed)));
+    }
+
+    /**
+     * Records provider latency per operation, outcome and HTTP status class. Calls that got no HTTP response
+     * are tagged with status {@code none} and outcome {@code io_error} for transport failures or {@code error}
+     * for anything else.
+     */
+    private <T> T timed(String operation, Supplier<T> call) {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        String status = "none";
+        try {
+            final T result = call.get();
+            outcome = "success";
+            status = "2xx";
+            return result;
+        } catch (HttpStatusCodeException e) {
+            outcome = e.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+            status = e.getStatusCode().value() / 100 + "xx";
+            throw e;
+        } catch (ResourceAccessException e) {
+            outcome = "io_error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("xpayment.provider.requests")
+                .description("X Payment provider HTTP calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .register(meterRegistry));
+        }
+    }
+
+    static boolean isClientError(Throwable e) {
+        final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+        return cause instanceof HttpClientErrorException || cause.getCause() instanceof HttpClientErrorException;
+    }
+
+    private static <T> T direct(Supplier<T> call) {
+        return call.get();
+    }
+
+    private static boolean isBatchUnsupported(HttpStatusCode status) {
+        return status.isSameCodeAs(HttpStatus.NOT_FOUND)
+            || status.isSameCodeAs(HttpStatus.METHOD_NOT_ALLOWED)
+            || status.isSameCodeAs(HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    /**
+     * Wraps a single provider call, e.g. to take a bulkhead slot for it.
+     */
+    interface CallGuard {
+        <T> T call(Supplier<T> call);
+    }
 }
@@ -2,21 +2,60 @@ package com.iprody.xpayment.adapter.app.api;
 
 import com.iprody.xpayment.app.api.ApiClient;
 import com.iprody.xpayment.app.api.client.DefaultApi;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 class XPaymentRestClientConfig {
 
+    @Bean(destroyMethod = "close")
+    CloseableHttpClient xpaymentHttpClient(
+        @Value("${app.x-payment-api.client.max-connections-per-host:500}") int maxConnectionsPerHost,
+        @Value("${app.x-payment-api.client.connect-timeout-ms:2000}") long connectTimeoutMs,
+        @Value("${app.x-payment-api.client.read-timeout-ms:10000}") long readTimeoutMs,
+        @Value("${app.x-payment-api.client.connection-request-timeout-ms:5000}") long connectionRequestTimeoutMs,
+        @Value("${app.x-payment-api.client.idle-timeout-ms:30000}") long idleTimeoutMs
+    ) {
+        final PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnectionsPerHost)
+            .setMaxConnPerRoute(maxConnectionsPerHost)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build())
+            .build();
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build())
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeoutMs))
+            .build();
+    }
+
     @Bean
     RestTemplate xpaymentRestTemplate(
+        CloseableHttpClient xpaymentHttpClient,
         @Value("${app.x-payment-api.client.username}") String username,
         @Value("${app.x-payment-api.client.password}") String password,
         @Value("${app.x-payment-api.client.account}") String xPayAccount
     ) {
-        final RestTemplate rt = new RestTemplate();
+        final RestTemplate rt = new RestTemplate(new HttpComponentsClientHttpRequestFactory(xpaymentHttpClient));
 
         rt.getInterceptors().add((req, body, ex) -> {
             req.getHeaders().setBasicAuth(username, password);
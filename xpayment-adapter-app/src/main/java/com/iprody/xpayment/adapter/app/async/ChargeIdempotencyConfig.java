@@ -0,0 +1,20 @@
+package com.iprody.xpayment.adapter.app.async;
+
+import com.iprody.xpayment.adapter.app.store.FileJournalStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+class ChargeIdempotencyConfig {
+
+    @Bean
+    FileJournalStore<ChargeRecord> chargeIdempotencyJournal(
+        @Value("${app.idempotency.path}") Path path,
+        @Value("${app.idempotency.fsync:true}") boolean fsync
+    ) {
+        return new FileJournalStore<>(path, ChargeRecord.class, fsync);
+    }
+}
@@ -0,0 +1,76 @@
+package com.iprody.xpayment.adapter.app.async;
+
+import com.iprody.xpayment.adapter.app.store.FileJournalStore;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Durable record of the charges created per payment, keyed by {@code paymentId}. Entries expire after
+ * {@code app.idempotency.ttl-ms}; expired entries are swept periodically and the journal is compacted
+ * once they're gone.
+ */
+@Component
+public class ChargeIdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ChargeIdempotencyStore.class);
+
+    private final FileJournalStore<ChargeRecord> journal;
+    private final Duration ttl;
+
+    public ChargeIdempotencyStore(
+        FileJournalStore<ChargeRecord> journal,
+        MeterRegistry meterRegistry,
+        @Value("${app.idempotency.ttl-ms:604800000}") long ttlMs
+    ) {
+        this.journal = journal;
+        this.ttl = Duration.ofMillis(ttlMs);
+
+        Gauge.builder("xpayment.idempotency.entries", journal, FileJournalStore::size)
+            .description("Charges remembered for redelivered payment requests")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return the response recorded for the payment's charge, unless it has expired
+     */
+    public Optional<XPaymentAdapterResponseMessage> find(UUID paymentId) {
+        return journal.get(paymentId.toString())
+            .filter(record -> !isExpired(record, Instant.now()))
+            .map(ChargeRecord::response);
+    }
+
+    public void record(UUID paymentId, XPaymentAdapterResponseMessage response) {
+        journal.put(paymentId.toString(), new ChargeRecord(paymentId, response, Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.sweep-interval-ms:3600000}")
+    public void evictExpired() {
+        final Instant now = Instant.now();
+        int evicted = 0;
+        for (ChargeRecord record : journal.values()) {
+            if (isExpired(record, now)) {
+                journal.remove(record.paymentId().toString());
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            journal.compact();
+            log.info("Evicted {} expired charge records, {} remain", evicted, journal.size());
+        }
+    }
+
+    private boolean isExpired(ChargeRecord record, Instant now) {
+        return record.recordedAt().plus(ttl).isBefore(now);
+    }
+}
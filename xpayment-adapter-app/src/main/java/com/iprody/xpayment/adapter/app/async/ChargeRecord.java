@@ -0,0 +1,16 @@
+package com.iprody.xpayment.adapter.app.async;
+
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outcome of a successful {@code createCharge}, kept so that a redelivered request re-emits the same response
+ * instead of charging again.
+ */
+public record ChargeRecord(
+    UUID paymentId,
+    XPaymentAdapterResponseMessage response,
+    Instant recordedAt
+) { }
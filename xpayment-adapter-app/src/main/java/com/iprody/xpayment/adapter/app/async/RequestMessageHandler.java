@@ -1,16 +1,28 @@
 package com.iprody.xpayment.adapter.app.async;
 
+import com.iprody.xpayment.adapter.app.api.ProviderUnavailableException;
 import com.iprody.xpayment.adapter.app.api.XPaymentProviderGateway;
 import com.iprody.xpayment.adapter.app.checkstate.PaymentStateCheckRegister;
 import com.iprody.xpayment.adapter.app.dto.ChargeRequestDto;
 import com.iprody.xpayment.adapter.app.dto.ChargeResponseDto;
+import com.iprody.xpayment.contract.AsyncSender;
+import com.iprody.xpayment.contract.MessageHandler;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 
 import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -21,25 +33,50 @@ public class RequestMessageHandler implements MessageHandler<XPaymentAdapterRequ
     private final XPaymentProviderGateway xPaymentProviderGateway;
     private final AsyncSender<XPaymentAdapterResponseMessage> asyncSender;
     private final PaymentStateCheckRegister paymentStateCheckRegister;
+    private final ChargeIdempotencyStore chargeIdempotencyStore;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public void handle(XPaymentAdapterRequestMessage message) {
         logger.info(
             "Payment request received paymentGuid - {}, amount - {}, currency - {}",
-            message.getPaymentId(),
-            message.getAmount(),
-            message.getCurrency()
+            message.paymentId(),
+            message.amount(),
+            message.currency()
         );
 
+        final Optional<XPaymentAdapterResponseMessage> charged = chargeIdempotencyStore.find(message.paymentId());
+        if (charged.isPresent()) {
+            logger.warn(
+                "Payment request with paymentGuid - {} was already charged, re-emitting the recorded response",
+                message.paymentId()
+            );
+            Counter.builder("xpayment.request.duplicate")
+                .description("Redelivered payment requests answered from the idempotency store")
+                .register(meterRegistry)
+                .increment();
+            final XPaymentAdapterResponseMessage response = charged.get();
+            paymentStateCheckRegister.register(
+                response.transactionRefId(),
+                response.paymentGuid(),
+                response.amount(),
+                response.currency()
+            );
+            asyncSender.send(response);
+            return;
+        }
+
         final ChargeRequestDto dto = ChargeRequestDto.builder()
-            .amount(message.getAmount())
-            .currency(message.getCurrency())
-            .order(message.getPaymentId())
+            .amount(message.amount())
+            .currency(message.currency())
+            .order(message.paymentId())
             .build();
 
+        final Timer.Sample sample = Timer.start(meterRegistry);
         try {
             final ChargeResponseDto chargeResponseDto =
                 xPaymentProviderGateway.createCharge(dto);
+            sample.stop(requestTimer("success"));
 
             logger.info(
                 "Payment request with paymentGuid - {} is sent for payment processing. Current status - {}",
@@ -48,6 +85,7 @@ public class RequestMessageHandler implements MessageHandler<XPaymentAdapterRequ
             );
 
             final XPaymentAdapterResponseMessage responseMessage = XPaymentAdapterResponseMessage.builder()
+                .messageId(UUID.randomUUID())
                 .paymentGuid(chargeResponseDto.order())
                 .transactionRefId(chargeResponseDto.id())
                 .amount(chargeResponseDto.amount())
@@ -56,29 +94,51 @@ public class RequestMessageHandler implements MessageHandler<XPaymentAdapterRequ
                 .occurredAt(Instant.now())
                 .build();
 
-            asyncSender.send(responseMessage);
+            chargeIdempotencyStore.record(message.paymentId(), responseMessage);
             paymentStateCheckRegister.register(
                 chargeResponseDto.id(),
                 chargeResponseDto.order(),
                 chargeResponseDto.amount(),
                 chargeResponseDto.currency()
             );
+            asyncSender.send(responseMessage);
 
-        } catch (RestClientException ex) {
+        } catch (ProviderUnavailableException ex) {
+            sample.stop(requestTimer("deferred"));
+            throw ex;
+        } catch (HttpClientErrorException ex) {
+            sample.stop(requestTimer("failure"));
             logger.error(
-                "Error in time of sending payment request with paymentGuid - {}",
-                message.getPaymentId(), ex
+                "Provider rejected payment request with paymentGuid - {}",
+                message.paymentId(), ex
             );
 
             final XPaymentAdapterResponseMessage responseMessage = XPaymentAdapterResponseMessage.builder()
-                .paymentGuid(message.getPaymentId())
-                .amount(message.getAmount())
-                .currency(message.getCurrency())
+                .messageId(UUID.randomUUID())
+                .paymentGuid(message.paymentId())
+                .amount(message.amount())
+                .currency(message.currency())
                 .status(XPaymentAdapterStatus.CANCELED)
                 .occurredAt(Instant.now())
                 .build();
 
             asyncSender.send(responseMessage);
+        } catch (RestClientException ex) {
+            // a timeout or 5xx may come after the charge was created; the order is the provider's idempotency
+            // key, so the request is retried instead of being cancelled
+            sample.stop(requestTimer("unknown"));
+            logger.warn(
+                "Outcome of payment request with paymentGuid - {} is unknown, it will be retried",
+                message.paymentId(), ex
+            );
+            throw ex;
         }
     }
+
+    private Timer requestTimer(String outcome) {
+        return Timer.builder("xpayment.request.duration")
+            .description("Time from consuming a payment request to the provider's charge response")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
 }
@@ -1,7 +0,0 @@
-package com.iprody.xpayment.adapter.app.async;
-
-public enum XPaymentAdapterStatus {
-    PROCESSING,
-    CANCELED,
-    SUCCEEDED
-}
@@ -0,0 +1,12 @@
+package com.iprody.xpayment.adapter.app.async.kafka;
+
+/**
+ * Thrown by {@link KeyOrderedDispatcher} when every slot stays taken, typically by requests waiting for the
+ * provider. The record wasn't dispatched and is redelivered by the request container's error handler.
+ */
+class DispatcherSaturatedException extends RuntimeException {
+
+    DispatcherSaturatedException(String message) {
+        super(message);
+    }
+}
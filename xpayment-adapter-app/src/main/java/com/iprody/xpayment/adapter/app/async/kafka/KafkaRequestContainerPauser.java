@@ -0,0 +1,43 @@
+package com.iprody.xpayment.adapter.app.async.kafka;
+
+import com.iprody.xpayment.adapter.app.api.ResilientXPaymentProviderGateway;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pauses the payment request container while the gateway rejects charges, because the charge circuit is open or
+ * the concurrency limit turned calls away, so requests stay on the topic instead of piling up as retries, and
+ * resumes it once charges are admitted again.
+ */
+@Component
+@RequiredArgsConstructor
+public class KafkaRequestContainerPauser {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaRequestContainerPauser.class);
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final ResilientXPaymentProviderGateway gateway;
+
+    @Scheduled(fixedDelayString = "${app.x-payment-api.resilience.circuit-breaker.pause-check-interval-ms:1000}")
+    public void reconcile() {
+        final MessageListenerContainer container =
+            registry.getListenerContainer(KafkaXPaymentAdapterRequestListenerAdapter.LISTENER_ID);
+        if (container == null || !container.isRunning()) {
+            return;
+        }
+
+        final boolean acceptsCharges = gateway.acceptsCharges();
+        if (!acceptsCharges && !container.isPauseRequested()) {
+            log.warn("Provider rejects charges, pausing payment request consumption");
+            container.pause();
+        } else if (acceptsCharges && container.isPauseRequested()) {
+            log.info("Provider accepts charges again, resuming payment request consumption");
+            container.resume();
+        }
+    }
+}
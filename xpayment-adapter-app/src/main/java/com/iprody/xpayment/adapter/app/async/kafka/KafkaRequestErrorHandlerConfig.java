@@ -0,0 +1,36 @@
+package com.iprody.xpayment.adapter.app.async.kafka;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * A request the dispatcher had no slot for is sought back and polled again every
+ * {@code redelivery-interval-ms} for as long as the dispatcher stays saturated; the consumer keeps polling
+ * meanwhile, so it stays in the group and {@link KafkaRequestContainerPauser} can pause it. Other failures keep
+ * the default handling.
+ */
+@Configuration
+class KafkaRequestErrorHandlerConfig {
+
+    @Bean
+    DefaultErrorHandler requestErrorHandler(
+        @Value("${app.kafka.listener.request.redelivery-interval-ms:1000}") long redeliveryIntervalMs
+    ) {
+        final FixedBackOff saturated = new FixedBackOff(redeliveryIntervalMs, FixedBackOff.UNLIMITED_ATTEMPTS);
+        final DefaultErrorHandler handler = new DefaultErrorHandler();
+        handler.setBackOffFunction((record, e) -> isSaturated(e) ? saturated : null);
+        return handler;
+    }
+
+    private static boolean isSaturated(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DispatcherSaturatedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
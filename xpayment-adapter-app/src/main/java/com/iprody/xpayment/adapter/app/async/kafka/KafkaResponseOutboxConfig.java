@@ -0,0 +1,21 @@
+package com.iprody.xpayment.adapter.app.async.kafka;
+
+import com.iprody.xpayment.adapter.app.store.FileJournalStore;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+class KafkaResponseOutboxConfig {
+
+    @Bean
+    FileJournalStore<XPaymentAdapterResponseMessage> responseOutboxStore(
+        @Value("${app.kafka.response-outbox.path}") Path path,
+        @Value("${app.kafka.response-outbox.fsync:true}") boolean fsync
+    ) {
+        return new FileJournalStore<>(path, XPaymentAdapterResponseMessage.class, fsync);
+    }
+}
@@ -1,8 +1,13 @@
 package com.iprody.xpayment.adapter.app.async.kafka;
 
-import com.iprody.xpayment.adapter.app.async.AsyncListener;
-import com.iprody.xpayment.adapter.app.async.MessageHandler;
-import com.iprody.xpayment.adapter.app.async.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.adapter.app.api.ProviderCallExecutor;
+import com.iprody.xpayment.adapter.app.api.ProviderUnavailableException;
+import com.iprody.xpayment.contract.AsyncListener;
+import com.iprody.xpayment.contract.MessageHandler;
+import com.iprody.xpayment.contract.XPaymentAdapterMessageValidator;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
@@ -12,20 +17,30 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Currency;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
 public class KafkaXPaymentAdapterRequestListenerAdapter implements AsyncListener<XPaymentAdapterRequestMessage> {
 
+    static final String LISTENER_ID = "xpayment-adapter-request-listener";
+
     private static final Logger log = LoggerFactory.getLogger(KafkaXPaymentAdapterRequestListenerAdapter.class);
 
     private final MessageHandler<XPaymentAdapterRequestMessage> handler;
     private final KafkaTemplate<String, XPaymentAdapterRequestMessage> template;
+    private final ProviderCallExecutor providerCallExecutor;
+    private final KeyOrderedDispatcher dispatcher;
+    private final XPaymentAdapterMessageValidator validator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kafka.listener.request.retry-delay-ms:1000}")
+    private long retryDelayMs;
 
     @Value("${app.kafka.topics.xpayment-adapter.request-dlt}")
     private String deadLetterTopic;
@@ -36,6 +51,7 @@ public class KafkaXPaymentAdapterRequestListenerAdapter implements AsyncListener
     }
 
     @KafkaListener(
+        id = LISTENER_ID,
         topics = "${app.kafka.topics.xpayment-adapter.request}",
         groupId = "${spring.kafka.consumer.group-id}"
     )
@@ -47,64 +63,91 @@ public class KafkaXPaymentAdapterRequestListenerAdapter implements AsyncListener
         try {
             log.info(
                 "Received XPayment Adapter request: paymentGuid={}, partition={}, offset={}",
-                message.getPaymentId(), record.partition(), record.offset()
+                message.paymentId(), record.partition(), record.offset()
             );
 
-            final List<String> violations = validate(message);
-            if (!violations.isEmpty()) {
+            final int violations = validator.check(message);
+            if (violations != 0) {
                 log.warn(
                     "Validation failed for paymentGuid={}, sending to DLT. Violations: {}",
-                    message.getPaymentId(), violations
+                    message.paymentId(), validator.describe(message, violations)
                 );
-                template.send(deadLetterTopic, String.valueOf(message.getPaymentId()), message);
+                template.send(deadLetterTopic, String.valueOf(message.paymentId()), message);
+                deadLettered("validation");
                 ack.acknowledge();
                 return;
             }
 
-            onMessage(message);
-            ack.acknowledge();
+            final CompletableFuture<Void> processed =
+                dispatcher.submit(String.valueOf(message.paymentId()), () -> process(message));
+            processed.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    log.error(
+                        "Error handling XPayment Adapter request for paymentGuid={}, sending to DLT",
+                        message.paymentId(), error
+                    );
+                    template.send(deadLetterTopic, String.valueOf(message.paymentId()), message);
+                    deadLettered("processing");
+                }
+                ack.acknowledge();
+            });
+        } catch (DispatcherSaturatedException e) {
+            log.warn(
+                "Dispatcher saturated, redelivering request for paymentGuid={}: {}",
+                message.paymentId(), e.getMessage()
+            );
+            throw e;
         } catch (Exception e) {
             log.error(
                 "Error handling XPayment Adapter request for paymentGuid={}",
-                message.getPaymentId(), e
+                message.paymentId(), e
             );
             throw e;
         }
     }
 
-    private List<String> validate(XPaymentAdapterRequestMessage message) {
-        final List<String> violations = new ArrayList<>();
-
-        if (message.getAmount() == null) {
-            violations.add("Amount is required");
-        }
-
-        if (message.getCurrency() == null || message.getCurrency().isBlank()) {
-            violations.add("Currency is required");
-        }
-
-        if (!violations.isEmpty()) {
-            return violations;
-        }
+    /**
+     * While the provider is unavailable, or a call failed without a definite 4xx answer, the request is retried
+     * after {@code retry-delay-ms} without being acknowledged, so it keeps its place among the requests for its
+     * payment and its offset stays uncommitted.
+     * {@link KafkaRequestContainerPauser} stops fetching new requests meanwhile; requests already fetched that find
+     * the dispatcher full are sought back by the error handler from {@link KafkaRequestErrorHandlerConfig}.
+     */
+    private CompletableFuture<Void> process(XPaymentAdapterRequestMessage message) {
+        return providerCallExecutor.run(() -> onMessage(message))
+            .exceptionallyCompose(error -> {
+                final Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                if (!isRetryable(cause)) {
+                    return CompletableFuture.failedFuture(cause);
+                }
+                log.warn(
+                    "Provider call for paymentGuid={} didn't complete, retrying in {} ms: {}",
+                    message.paymentId(), retryDelayMs, cause.getMessage()
+                );
+                deferred();
+                return CompletableFuture
+                    .runAsync(() -> { }, CompletableFuture.delayedExecutor(retryDelayMs, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> process(message));
+            });
+    }
 
-        if (message.getAmount().compareTo(BigDecimal.ZERO) < 0) {
-            violations.add("Amount must not be negative: " + message.getAmount());
-        }
+    private static boolean isRetryable(Throwable cause) {
+        return cause instanceof ProviderUnavailableException
+            || cause instanceof RestClientException && !(cause instanceof HttpClientErrorException);
+    }
 
-        try {
-            final Currency curr = Currency.getInstance(message.getCurrency());
-            final int allowedFractionDigits = curr.getDefaultFractionDigits();
-
-            if (allowedFractionDigits >= 0 && message.getAmount().scale() > allowedFractionDigits) {
-                violations.add(String.format(
-                    "Amount scale %d exceeds allowed %d fraction digits for currency %s (ISO 4217)",
-                    message.getAmount().scale(), allowedFractionDigits, message.getCurrency()
-                ));
-            }
-        } catch (IllegalArgumentException e) {
-            violations.add("Unknown currency code: " + message.getCurrency());
-        }
+    private void deferred() {
+        Counter.builder("xpayment.request.deferred")
+            .description("Payment request attempts put off while the provider is unavailable or didn't answer")
+            .register(meterRegistry)
+            .increment();
+    }
 
-        return violations;
+    private void deadLettered(String reason) {
+        Counter.builder("xpayment.request.dlt")
+            .description("Payment requests routed to the dead-letter topic")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
     }
 }
@@ -1,36 +1,173 @@
 package com.iprody.xpayment.adapter.app.async.kafka;
 
-import com.iprody.xpayment.adapter.app.async.AsyncSender;
-import com.iprody.xpayment.adapter.app.async.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.adapter.app.store.FileJournalStore;
+import com.iprody.xpayment.contract.AsyncSender;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends XPayment Adapter responses without blocking on the broker. A response is journaled before it is handed
+ * to the producer and removed once the broker acknowledged it; responses whose send failed stay in the journal
+ * and are redelivered every {@code app.kafka.response-outbox.redeliver-interval-ms}, also after a restart.
+ * A response is claimed in flight before it becomes visible in the journal, so redelivery never races the
+ * first send of a response that was just queued. The producer callback only queues acknowledged responses; they
+ * are removed from the journal in batches every {@code app.kafka.response-outbox.ack-sweep-interval-ms}, so
+ * journal writes and fsyncs never run on the producer's I/O thread. They stay claimed until then.
+ */
 @Service
 public class KafkaXPaymentAdapterResponseSender implements AsyncSender<XPaymentAdapterResponseMessage> {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaXPaymentAdapterResponseSender.class);
 
     private final KafkaTemplate<String, XPaymentAdapterResponseMessage> template;
+    private final FileJournalStore<XPaymentAdapterResponseMessage> outbox;
     private final String topic;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private final Queue<UUID> acknowledged = new ConcurrentLinkedQueue<>();
+
+    private final Timer ackTimer;
+    private final Counter failedCounter;
 
     public KafkaXPaymentAdapterResponseSender(
         KafkaTemplate<String, XPaymentAdapterResponseMessage> template,
+        FileJournalStore<XPaymentAdapterResponseMessage> outbox,
+        MeterRegistry meterRegistry,
         @Value("${app.kafka.topics.xpayment-adapter.response:xpayment-adapter.responses}") String topic
     ) {
         this.template = template;
+        this.outbox = outbox;
         this.topic = topic;
+
+        this.ackTimer = Timer.builder("xpayment.kafka.send")
+            .description("Time from handing a response to the producer until the broker acknowledged it")
+            .tag("topic", topic)
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("xpayment.kafka.send.failed")
+            .description("Responses the producer failed to deliver; they stay queued for redelivery")
+            .tag("topic", topic)
+            .register(meterRegistry);
+        Gauge.builder("xpayment.response.outbox.pending", outbox, FileJournalStore::size)
+            .description("Responses not yet acknowledged by the broker")
+            .register(meterRegistry);
     }
 
     @Override
     public void send(XPaymentAdapterResponseMessage msg) {
-        final String key = msg.getPaymentGuid().toString();
         log.info(
             "Sending XPayment Adapter response: guid={}, amount={}, currency={} -> topic={}",
-            msg.getPaymentGuid(), msg.getAmount(), msg.getCurrency(), topic
+            msg.paymentGuid(), msg.amount(), msg.currency(), topic
         );
-        template.send(topic, key, msg);
+        enqueueAndSend(msg);
+    }
+
+    /**
+     * Hands the whole batch to the producer and flushes once, so a burst of notifications goes out
+     * in as few produce requests as the batching settings allow.
+     */
+    @Override
+    public List<CompletableFuture<Void>> sendAll(List<XPaymentAdapterResponseMessage> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        final List<CompletableFuture<Void>> results = new ArrayList<>(messages.size());
+        for (XPaymentAdapterResponseMessage msg : messages) {
+            results.add(enqueueAndSend(msg));
+        }
+        template.flush();
+        log.info("Sent {} XPayment Adapter responses -> topic={}", messages.size(), topic);
+        return results;
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka.response-outbox.ack-sweep-interval-ms:100}")
+    public void removeAcknowledged() {
+        final List<UUID> removed = new ArrayList<>();
+        for (UUID messageId = acknowledged.poll(); messageId != null; messageId = acknowledged.poll()) {
+            removed.add(messageId);
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+        try {
+            outbox.removeAll(removed.stream().map(UUID::toString).toList());
+        } finally {
+            removed.forEach(inFlight::remove);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka.response-outbox.redeliver-interval-ms:5000}")
+    public void redeliver() {
+        int resent = 0;
+        for (XPaymentAdapterResponseMessage msg : outbox.values()) {
+            if (inFlight.add(msg.messageId())) {
+                sendAsync(msg);
+                resent++;
+            }
+        }
+        if (resent > 0) {
+            log.warn("Redelivering {} unacknowledged XPayment Adapter responses -> topic={}", resent, topic);
+        }
+    }
+
+    private CompletableFuture<Void> enqueueAndSend(XPaymentAdapterResponseMessage msg) {
+        final XPaymentAdapterResponseMessage identified = msg.messageId() != null
+            ? msg
+            : msg.withMessageId(UUID.randomUUID());
+        final UUID messageId = identified.messageId();
+
+        inFlight.add(messageId);
+        try {
+            outbox.put(messageId.toString(), identified);
+        } catch (RuntimeException e) {
+            inFlight.remove(messageId);
+            throw e;
+        }
+        return sendAsync(identified);
+    }
+
+    /**
+     * The caller must have claimed the message in {@link #inFlight}; the claim is released once the send failed or
+     * the acknowledged message was removed from the journal.
+     */
+    private CompletableFuture<Void> sendAsync(XPaymentAdapterResponseMessage msg) {
+        final UUID messageId = msg.messageId();
+        final long start = System.nanoTime();
+        try {
+            return template.send(topic, msg.paymentGuid().toString(), msg).whenComplete((result, error) -> {
+                if (error == null) {
+                    acknowledged.add(messageId);
+                    ackTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                inFlight.remove(messageId);
+                failedCounter.increment();
+                log.error("Failed to deliver XPayment Adapter response: guid={}, messageId={}, will retry",
+                    msg.paymentGuid(), messageId, error);
+            }).thenAccept(sent -> { });
+        } catch (RuntimeException e) {
+            inFlight.remove(messageId);
+            failedCounter.increment();
+            log.error("Failed to hand XPayment Adapter response to the producer: guid={}, messageId={}, will retry",
+                msg.paymentGuid(), messageId, e);
+            return CompletableFuture.failedFuture(e);
+        }
     }
 }
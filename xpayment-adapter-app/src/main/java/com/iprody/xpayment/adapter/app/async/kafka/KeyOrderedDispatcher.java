@@ -0,0 +1,85 @@
+package com.iprody.xpayment.adapter.app.async.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks for different keys concurrently and tasks for the same key one after another, in submission order.
+ * A task starts once its predecessor for the key has completed, successfully or not. At most
+ * {@code max-in-flight} tasks are queued or running; the permit is taken on the submitting thread, so a full
+ * dispatcher holds up the listener instead of buffering records without bound. It waits at most
+ * {@code acquire-timeout-ms}, well below {@code max.poll.interval.ms}, and then throws
+ * {@link DispatcherSaturatedException}.
+ */
+@Component
+public class KeyOrderedDispatcher {
+
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long acquireTimeoutMs;
+    private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public KeyOrderedDispatcher(
+        @Value("${app.kafka.listener.request.max-in-flight:256}") int maxInFlight,
+        @Value("${app.kafka.listener.request.acquire-timeout-ms:10000}") long acquireTimeoutMs,
+        MeterRegistry meterRegistry
+    ) {
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.permits = new Semaphore(maxInFlight);
+
+        Gauge.builder("xpayment.request.in-flight", this, KeyOrderedDispatcher::inFlight)
+            .description("Payment requests dispatched and not yet completed")
+            .register(meterRegistry);
+        Gauge.builder("xpayment.request.in-flight.keys", tails, Map::size)
+            .description("Payment keys with a request queued or running")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return completes with the task's outcome
+     */
+    public CompletableFuture<Void> submit(String key, Supplier<CompletableFuture<Void>> task) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new DispatcherSaturatedException(
+                    "No dispatch slot freed up within " + acquireTimeoutMs + " ms, " + maxInFlight + " in flight");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        final CompletableFuture<Void> previous = tails.put(key, done);
+        final CompletableFuture<Void> predecessor = previous == null
+            ? CompletableFuture.completedFuture(null)
+            : previous.exceptionally(ignored -> null);
+
+        predecessor
+            .thenCompose(ignored -> task.get())
+            .whenComplete((ignored, error) -> {
+                tails.remove(key, done);
+                permits.release();
+                if (error != null) {
+                    done.completeExceptionally(error);
+                } else {
+                    done.complete(null);
+                }
+            });
+        return done;
+    }
+
+    int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+}
@@ -0,0 +1,14 @@
+package com.iprody.xpayment.adapter.app.async.kafka;
+
+import com.iprody.xpayment.contract.XPaymentAdapterMessageValidator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+class XPaymentContractConfig {
+
+    @Bean
+    XPaymentAdapterMessageValidator xPaymentAdapterMessageValidator() {
+        return new XPaymentAdapterMessageValidator();
+    }
+}
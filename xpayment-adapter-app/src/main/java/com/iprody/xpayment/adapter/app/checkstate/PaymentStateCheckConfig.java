@@ -0,0 +1,20 @@
+package com.iprody.xpayment.adapter.app.checkstate;
+
+import com.iprody.xpayment.adapter.app.store.FileJournalStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+class PaymentStateCheckConfig {
+
+    @Bean
+    FileJournalStore<PendingStateCheck> paymentStateCheckStore(
+        @Value("${app.state-check.store.path}") Path path,
+        @Value("${app.state-check.store.fsync:true}") boolean fsync
+    ) {
+        return new FileJournalStore<>(path, PendingStateCheck.class, fsync);
+    }
+}
@@ -0,0 +1,209 @@
+package com.iprody.xpayment.adapter.app.checkstate;
+
+import com.iprody.xpayment.adapter.app.checkstate.handler.PaymentStatusCheckHandler;
+import com.iprody.xpayment.adapter.app.checkstate.handler.StatusCheckResult;
+import com.iprody.xpayment.adapter.app.store.FileJournalStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps pending charge status checks in a {@link TimingWheel} backed by a durable journal. Every tick
+ * collects the checks that fell due and resolves them against the provider in batched status requests;
+ * charges whose status couldn't be retrieved are retried without counting an attempt, non-terminal charges
+ * are rescheduled with jittered exponential backoff until {@code max-retries} is exhausted, after which they
+ * are handed to the dead-letter exchange.
+ */
+@Component
+public class PaymentStateCheckScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentStateCheckScheduler.class);
+
+    private final FileJournalStore<PendingStateCheck> store;
+    private final PaymentStatusCheckHandler paymentStatusCheckHandler;
+    private final RabbitTemplate rabbitTemplate;
+    private final String dlxExchangeName;
+    private final String dlxRoutingKey;
+    private final int maxRetries;
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    private final long tickMs;
+    private final TimingWheel<PendingStateCheck> wheel;
+    private final Counter deadLetteredCounter;
+
+    public PaymentStateCheckScheduler(
+        FileJournalStore<PendingStateCheck> store,
+        PaymentStatusCheckHandler paymentStatusCheckHandler,
+        RabbitTemplate rabbitTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${app.rabbitmq.dlx-exchange-name}") String dlxExchangeName,
+        @Value("${app.rabbitmq.dlx-routing-key}") String dlxRoutingKey,
+        @Value("${app.state-check.max-retries:60}") int maxRetries,
+        @Value("${app.state-check.initial-delay-ms:5000}") long initialDelayMs,
+        @Value("${app.state-check.max-delay-ms:60000}") long maxDelayMs,
+        @Value("${app.state-check.tick-ms:100}") long tickMs,
+        @Value("${app.state-check.wheel-size:512}") int wheelSize
+    ) {
+        this.store = store;
+        this.paymentStatusCheckHandler = paymentStatusCheckHandler;
+        this.rabbitTemplate = rabbitTemplate;
+        this.dlxExchangeName = dlxExchangeName;
+        this.dlxRoutingKey = dlxRoutingKey;
+        this.maxRetries = maxRetries;
+        this.initialDelayMs = initialDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.tickMs = tickMs;
+        this.wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+
+        Gauge.builder("xpayment.state-check.pending", store, FileJournalStore::size)
+            .description("Charges waiting for a terminal status check")
+            .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("xpayment.state-check.dead-lettered")
+            .description("Charges handed to the dead-letter exchange after exhausting status checks")
+            .register(meterRegistry);
+
+        final List<PendingStateCheck> recovered = List.copyOf(store.values());
+        recovered.forEach(this::enqueue);
+        log.info("Recovered {} pending payment state checks", recovered.size());
+    }
+
+    public void register(PendingStateCheck check) {
+        store.put(check.chargeGuid().toString(), check);
+        enqueue(check);
+    }
+
+    public boolean isPending(UUID chargeGuid) {
+        return store.get(chargeGuid.toString()).isPresent();
+    }
+
+    public PendingStateCheck firstCheck(PaymentCheckStateMessage message) {
+        return new PendingStateCheck(
+            message.chargeGuid(),
+            message.paymentGuid(),
+            message.amount(),
+            message.currency(),
+            1,
+            Instant.now().plusMillis(backoffMs(1))
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${app.state-check.tick-ms:100}")
+    public void tick() {
+        final List<PendingStateCheck> due;
+        synchronized (wheel) {
+            due = wheel.advanceTo(System.currentTimeMillis());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        log.debug("Checking {} due payment states", due.size());
+        final StatusCheckResult result = checkStatuses(due);
+        for (PendingStateCheck check : due) {
+            if (result.failed().contains(check.chargeGuid())) {
+                retryLater(check);
+                continue;
+            }
+            final CompletableFuture<Void> published = result.terminal().get(check.chargeGuid());
+            if (published != null) {
+                completeOnPublication(check, published);
+                continue;
+            }
+            try {
+                checkAgainOrGiveUp(check);
+            } catch (RuntimeException e) {
+                log.warn("Failed to complete state check for charge {}, retrying it later", check.chargeGuid(), e);
+                retryLater(check);
+            }
+        }
+    }
+
+    /**
+     * The check stays in the journal until payment-service has the terminal status; if publishing fails the
+     * charge is checked again, which publishes its status anew.
+     */
+    private void completeOnPublication(PendingStateCheck check, CompletableFuture<Void> published) {
+        published.whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.warn("Terminal status of charge {} wasn't published, checking it again later",
+                    check.chargeGuid(), e);
+                retryLater(check);
+                return;
+            }
+            try {
+                store.remove(check.chargeGuid().toString());
+            } catch (RuntimeException removeFailure) {
+                log.warn("Failed to complete state check for charge {}", check.chargeGuid(), removeFailure);
+            }
+        });
+    }
+
+    private void checkAgainOrGiveUp(PendingStateCheck check) {
+        if (check.attempt() >= maxRetries) {
+            sendToDeadLetter(check);
+            store.remove(check.chargeGuid().toString());
+            return;
+        }
+
+        register(check.next(Instant.now().plusMillis(backoffMs(check.attempt() + 1))));
+    }
+
+    private StatusCheckResult checkStatuses(List<PendingStateCheck> due) {
+        final List<UUID> chargeGuids = due.stream().map(PendingStateCheck::chargeGuid).toList();
+        try {
+            return paymentStatusCheckHandler.handleAll(chargeGuids);
+        } catch (RuntimeException e) {
+            log.warn("Status check for {} charges failed", due.size(), e);
+            return StatusCheckResult.failed(chargeGuids);
+        }
+    }
+
+    /**
+     * Checks that couldn't be completed keep their attempt, so provider outages don't use up the retries.
+     */
+    private void retryLater(PendingStateCheck check) {
+        enqueue(check.rescheduled(Instant.now().plusMillis(backoffMs(check.attempt()))));
+    }
+
+    private void enqueue(PendingStateCheck check) {
+        final long deadline = check.dueAt().toEpochMilli();
+        synchronized (wheel) {
+            if (!wheel.schedule(check, deadline)) {
+                wheel.schedule(check, System.currentTimeMillis() + tickMs);
+            }
+        }
+    }
+
+    /**
+     * Exponential backoff capped at {@code max-delay-ms} with equal jitter, so checks registered in the
+     * same burst spread out instead of hitting the provider in lockstep.
+     */
+    private long backoffMs(int attempt) {
+        final long exponential = initialDelayMs << Math.min(attempt - 1, 20);
+        final long capped = Math.min(maxDelayMs, exponential);
+        final long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void sendToDeadLetter(PendingStateCheck check) {
+        log.warn("Charge {} did not reach terminal status after {} checks", check.chargeGuid(), check.attempt());
+        deadLetteredCounter.increment();
+        rabbitTemplate.convertAndSend(dlxExchangeName, dlxRoutingKey, check.toMessage(), m -> {
+            m.getMessageProperties().setHeader("x-retry-count", check.attempt());
+            m.getMessageProperties().setHeader("x-final-status", "TIMEOUT");
+            return m;
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.iprody.xpayment.adapter.app.checkstate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record PendingStateCheck(
+    UUID chargeGuid,
+    UUID paymentGuid,
+    BigDecimal amount,
+    String currency,
+    int attempt,
+    Instant dueAt
+) {
+
+    public PendingStateCheck next(Instant nextDueAt) {
+        return new PendingStateCheck(chargeGuid, paymentGuid, amount, currency, attempt + 1, nextDueAt);
+    }
+
+    /**
+     * Same attempt, new due time: for checks whose completion failed and has to be repeated.
+     */
+    public PendingStateCheck rescheduled(Instant nextDueAt) {
+        return new PendingStateCheck(chargeGuid, paymentGuid, amount, currency, attempt, nextDueAt);
+    }
+
+    public PaymentCheckStateMessage toMessage() {
+        return new PaymentCheckStateMessage(chargeGuid, paymentGuid, amount, currency);
+    }
+}
@@ -0,0 +1,117 @@
+package com.iprody.xpayment.adapter.app.checkstate;
+
+import com.iprody.xpayment.adapter.app.dto.ChargeResponseDto;
+import com.iprody.xpayment.contract.AsyncSender;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes terminal charge statuses found by the state checker to payment-service. Detections are coalesced
+ * per charge and flushed as one batch every {@code app.state-check.notify.flush-interval-ms}, so a charge
+ * reported several times before a flush still produces a single message. Messages are stamped with the
+ * detection time on this adapter's clock, the same clock as the {@code PROCESSING} response they follow.
+ */
+@Component
+public class TerminalStatusNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(TerminalStatusNotifier.class);
+
+    private final AsyncSender<XPaymentAdapterResponseMessage> asyncSender;
+    private final Timer notificationLatency;
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+
+    public TerminalStatusNotifier(
+        AsyncSender<XPaymentAdapterResponseMessage> asyncSender,
+        MeterRegistry meterRegistry
+    ) {
+        this.asyncSender = asyncSender;
+        this.notificationLatency = Timer.builder("xpayment.state-check.notification.latency")
+            .description("Time from detecting a terminal charge status to publishing it")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return completes once the status has been sent, or fails if sending it failed
+     */
+    public CompletableFuture<Void> notify(ChargeResponseDto charge, XPaymentAdapterStatus status) {
+        return pending.computeIfAbsent(charge.id(), id -> new Pending(
+            toMessage(charge, status), System.nanoTime(), new CompletableFuture<>())).published();
+    }
+
+    @Scheduled(fixedDelayString = "${app.state-check.notify.flush-interval-ms:200}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        final List<Pending> batch = new ArrayList<>(pending.size());
+        for (UUID chargeId : List.copyOf(pending.keySet())) {
+            final Pending entry = pending.remove(chargeId);
+            if (entry != null) {
+                batch.add(entry);
+            }
+        }
+
+        final List<CompletableFuture<Void>> sent;
+        try {
+            sent = asyncSender.sendAll(batch.stream().map(Pending::message).toList());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish {} terminal charge statuses, will retry", batch.size(), e);
+            batch.forEach(entry -> pending.putIfAbsent(entry.message().transactionRefId(), entry));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            final Pending entry = batch.get(i);
+            sent.get(i).whenComplete((ignored, e) -> {
+                if (e != null) {
+                    entry.published().completeExceptionally(e);
+                    return;
+                }
+                notificationLatency.record(System.nanoTime() - entry.detectedAtNanos(), TimeUnit.NANOSECONDS);
+                entry.published().complete(null);
+            });
+        }
+        log.debug("Publishing {} terminal charge statuses", batch.size());
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private static XPaymentAdapterResponseMessage toMessage(ChargeResponseDto charge, XPaymentAdapterStatus status) {
+        return XPaymentAdapterResponseMessage.builder()
+            .messageId(UUID.randomUUID())
+            .paymentGuid(charge.order())
+            .transactionRefId(charge.id())
+            .amount(charge.amount())
+            .currency(charge.currency())
+            .status(status)
+            .occurredAt(Instant.now())
+            .build();
+    }
+
+    private record Pending(
+        XPaymentAdapterResponseMessage message,
+        long detectedAtNanos,
+        CompletableFuture<Void> published
+    ) { }
+}
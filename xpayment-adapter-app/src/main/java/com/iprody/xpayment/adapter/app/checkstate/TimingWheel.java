@@ -0,0 +1,122 @@
+package com.iprody.xpayment.adapter.app.checkstate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Level {@code k} has {@code wheelSize} slots, each spanning
+ * {@code wheelSize^k} ticks. Entries fall into the lowest level that can hold them and cascade down
+ * as the wheel turns, so scheduling and expiry are O(levels) regardless of how many entries are pending.
+ *
+ * <p>Not thread-safe; callers must serialize access.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<List<List<Entry<T>>>> levels = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize at least 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Schedules {@code value} to expire at {@code deadlineMs}.
+     *
+     * @return false if the deadline has already passed; the entry is not stored in that case
+     */
+    public boolean schedule(T value, long deadlineMs) {
+        final long target = Math.ceilDiv(deadlineMs, tickMs);
+        if (target <= currentTick) {
+            return false;
+        }
+        place(new Entry<>(value, target));
+        size++;
+        return true;
+    }
+
+    /**
+     * Turns the wheel up to {@code nowMs} and returns every entry that expired on the way, in deadline order.
+     */
+    public List<T> advanceTo(long nowMs) {
+        final List<T> expired = new ArrayList<>();
+        final long targetTick = nowMs / tickMs;
+
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            long span = pow(levels.size() - 1);
+            for (int level = levels.size() - 1; level > 0; level--, span /= wheelSize) {
+                if (currentTick % span == 0) {
+                    cascade(levels.get(level), (int) ((currentTick / span) % wheelSize), expired);
+                }
+            }
+
+            if (!levels.isEmpty()) {
+                final List<Entry<T>> slot = levels.getFirst().get((int) (currentTick % wheelSize));
+                for (Entry<T> entry : slot) {
+                    expired.add(entry.value());
+                }
+                size -= slot.size();
+                slot.clear();
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(List<List<Entry<T>>> wheel, int slotIndex, List<T> expired) {
+        final List<Entry<T>> slot = wheel.get(slotIndex);
+        if (slot.isEmpty()) {
+            return;
+        }
+        final List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        for (Entry<T> entry : entries) {
+            if (entry.targetTick() <= currentTick) {
+                expired.add(entry.value());
+                size--;
+            } else {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        int level = 0;
+        long span = 1;
+        while (entry.targetTick() / span - currentTick / span >= wheelSize) {
+            level++;
+            span *= wheelSize;
+        }
+        while (levels.size() <= level) {
+            final List<List<Entry<T>>> wheel = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                wheel.add(new ArrayList<>());
+            }
+            levels.add(wheel);
+        }
+        levels.get(level).get((int) ((entry.targetTick() / span) % wheelSize)).add(entry);
+    }
+
+    private long pow(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= wheelSize;
+        }
+        return result;
+    }
+
+    private record Entry<T>(T value, long targetTick) { }
+}
@@ -1,5 +1,6 @@
 package com.iprody.xpayment.adapter.app.checkstate.handler;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface PaymentStatusCheckHandler {
@@ -14,4 +15,14 @@ public interface PaymentStatusCheckHandler {
     не требуются, иначе false
      */
     boolean handle(UUID paymentGuid);
+
+    /**
+     * Пакетный вариант {@link #handle(UUID)}: запрашивает статусы всех платежей
+     минимальным числом обращений к X Payment Provider.
+     *
+     * @param paymentGuids UUID платежей для проверки
+     * @return UUID платежей, достигших терминального статуса, вместе с отправкой
+    уведомления о нем, и UUID платежей, статус которых получить не удалось
+     */
+    StatusCheckResult handleAll(Collection<UUID> paymentGuids);
 }
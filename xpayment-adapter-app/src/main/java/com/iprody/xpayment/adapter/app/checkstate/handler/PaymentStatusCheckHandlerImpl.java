@@ -1,14 +1,20 @@
 package com.iprody.xpayment.adapter.app.checkstate.handler;
 
+import com.iprody.xpayment.adapter.app.api.ChargeRetrieval;
 import com.iprody.xpayment.adapter.app.api.XPaymentProviderGateway;
-import com.iprody.xpayment.adapter.app.async.XPaymentAdapterStatus;
+import com.iprody.xpayment.adapter.app.checkstate.TerminalStatusNotifier;
 import com.iprody.xpayment.adapter.app.dto.ChargeResponseDto;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -17,18 +23,59 @@ public class PaymentStatusCheckHandlerImpl implements PaymentStatusCheckHandler
     private static final Logger log = LoggerFactory.getLogger(PaymentStatusCheckHandlerImpl.class);
 
     private final XPaymentProviderGateway xPaymentProviderGateway;
+    private final TerminalStatusNotifier terminalStatusNotifier;
 
     @Override
     public boolean handle(UUID paymentGuid) {
-        final ChargeResponseDto charge = xPaymentProviderGateway.retrieveCharge(paymentGuid);
-        final XPaymentAdapterStatus status = XPaymentAdapterStatus.valueOf(charge.status());
+        return resolve(xPaymentProviderGateway.retrieveCharge(paymentGuid)) != null;
+    }
+
+    @Override
+    public StatusCheckResult handleAll(Collection<UUID> paymentGuids) {
+        final ChargeRetrieval retrieval = xPaymentProviderGateway.retrieveCharges(paymentGuids);
+        final Map<UUID, CompletableFuture<Void>> terminal = new HashMap<>();
+        for (ChargeResponseDto charge : retrieval.charges()) {
+            final CompletableFuture<Void> published = resolve(charge);
+            if (published != null) {
+                terminal.put(charge.id(), published);
+            }
+        }
+        return new StatusCheckResult(terminal, retrieval.failed());
+    }
+
+    /**
+     * Terminal statuses are handed to {@link TerminalStatusNotifier} for publishing.
+     *
+     * @return the publication of the terminal status, or null while the charge isn't terminal
+     */
+    private CompletableFuture<Void> resolve(ChargeResponseDto charge) {
+        final XPaymentAdapterStatus status = parseStatus(charge);
+        if (status == null) {
+            return null;
+        }
 
         if (status == XPaymentAdapterStatus.PROCESSING) {
-            log.debug("Charge {} is still processing", paymentGuid);
-            return false;
+            log.debug("Charge {} is still processing", charge.id());
+            return null;
         }
 
-        log.info("Charge {} reached terminal status: {}", paymentGuid, status);
-        return true;
+        log.info("Charge {} reached terminal status: {}", charge.id(), status);
+        return terminalStatusNotifier.notify(charge, status);
+    }
+
+    /**
+     * @return null for a missing or unknown status, which keeps the charge under observation
+     */
+    private static XPaymentAdapterStatus parseStatus(ChargeResponseDto charge) {
+        if (charge.status() == null) {
+            log.warn("Charge {} has no status", charge.id());
+            return null;
+        }
+        try {
+            return XPaymentAdapterStatus.valueOf(charge.status());
+        } catch (IllegalArgumentException e) {
+            log.warn("Charge {} has unknown status {}", charge.id(), charge.status());
+            return null;
+        }
     }
 }
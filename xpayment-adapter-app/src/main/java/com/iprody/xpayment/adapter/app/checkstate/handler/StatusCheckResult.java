@@ -0,0 +1,18 @@
+package com.iprody.xpayment.adapter.app.checkstate.handler;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Charges that reached a terminal status, each with the publication of its status to payment-service,
+ * and charges whose status couldn't be retrieved.
+ */
+public record StatusCheckResult(Map<UUID, CompletableFuture<Void>> terminal, Set<UUID> failed) {
+
+    public static StatusCheckResult failed(Collection<UUID> ids) {
+        return new StatusCheckResult(Map.of(), Set.copyOf(ids));
+    }
+}
@@ -0,0 +1,301 @@
+package com.iprody.xpayment.adapter.app.store;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small durable key-value store: an in-memory map backed by an append-only JSON-lines journal.
+ * The journal is replayed and compacted on open, and compacted again once dead records outnumber live ones.
+ * With {@code fsync} on, writes return once their record is forced to disk; the force runs outside the write
+ * lock and covers every record appended so far, so concurrent writers share it.
+ */
+public class FileJournalStore<V> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FileJournalStore.class);
+
+    private static final String OP_PUT = "PUT";
+    private static final String OP_DELETE = "DEL";
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private final Path path;
+    private final JavaType valueType;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final Map<String, V> entries = new ConcurrentHashMap<>();
+    // writers wait on these across I/O; a ReentrantLock doesn't pin the carrier of a virtual thread like a monitor
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final AtomicLong synced = new AtomicLong();
+
+    private FileChannel channel;
+    private BufferedWriter writer;
+    private long journalRecords;
+    private long appended;
+
+    public FileJournalStore(Path path, Class<V> valueType, boolean fsync) {
+        this.path = path;
+        this.valueType = objectMapper.constructType(valueType);
+        this.fsync = fsync;
+        replay();
+        compact();
+    }
+
+    public Optional<V> get(String key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    public Collection<V> values() {
+        return List.copyOf(entries.values());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void put(String key, V value) {
+        final ObjectNode record = objectMapper.createObjectNode()
+            .put("op", OP_PUT)
+            .put("key", key);
+        record.set("value", objectMapper.valueToTree(value));
+        final long seq;
+        lock.lock();
+        try {
+            seq = append(record);
+            entries.put(key, value);
+            compactIfSparse();
+        } finally {
+            lock.unlock();
+        }
+        sync(seq);
+    }
+
+    public void remove(String key) {
+        final long seq;
+        lock.lock();
+        try {
+            if (!entries.containsKey(key)) {
+                return;
+            }
+            seq = append(objectMapper.createObjectNode().put("op", OP_DELETE).put("key", key));
+            entries.remove(key);
+            compactIfSparse();
+        } finally {
+            lock.unlock();
+        }
+        sync(seq);
+    }
+
+    /**
+     * Removes the keys with a single sync of the journal.
+     */
+    public void removeAll(Collection<String> keys) {
+        long seq = 0;
+        lock.lock();
+        try {
+            for (String key : keys) {
+                if (entries.containsKey(key)) {
+                    seq = append(objectMapper.createObjectNode().put("op", OP_DELETE).put("key", key));
+                    entries.remove(key);
+                }
+            }
+            if (seq > 0) {
+                compactIfSparse();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (seq > 0) {
+            sync(seq);
+        }
+    }
+
+    /**
+     * Rewrites the journal with only the live entries. The new journal is written to a temporary file, forced
+     * to disk when {@code fsync} is on, and only then moved over the old one.
+     */
+    public void compact() {
+        final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        lock.lock();
+        try {
+            closeWriter();
+            try (FileChannel tmpChannel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 BufferedWriter out = new BufferedWriter(Channels.newWriter(tmpChannel, StandardCharsets.UTF_8))) {
+                for (Map.Entry<String, V> entry : entries.entrySet()) {
+                    final ObjectNode record = objectMapper.createObjectNode()
+                        .put("op", OP_PUT)
+                        .put("key", entry.getKey());
+                    record.set("value", objectMapper.valueToTree(entry.getValue()));
+                    out.write(objectMapper.writeValueAsString(record));
+                    out.newLine();
+                }
+                out.flush();
+                if (fsync) {
+                    tmpChannel.force(true);
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synced.accumulateAndGet(appended, Math::max);
+            journalRecords = entries.size();
+            openWriter();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact journal " + path, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closeWriter();
+        } catch (IOException e) {
+            log.warn("Failed to close journal {}", path, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replay() {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            if (!Files.exists(path)) {
+                return;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        apply(objectMapper.readTree(line));
+                    } catch (IOException e) {
+                        log.warn("Skipping corrupt journal record in {}: {}", path, line, e);
+                    }
+                }
+            }
+            log.info("Replayed {} live entries from {}", entries.size(), path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replay journal " + path, e);
+        }
+    }
+
+    private void apply(JsonNode record) throws IOException {
+        final String key = record.path("key").asText();
+        if (OP_DELETE.equals(record.path("op").asText())) {
+            entries.remove(key);
+        } else {
+            entries.put(key, objectMapper.readerFor(valueType).readValue(record.get("value")));
+        }
+    }
+
+    /**
+     * Writes the record before the in-memory map is touched, so a failed append leaves both unchanged.
+     *
+     * @return the record's sequence number, to {@link #sync(long)} on
+     */
+    private long append(ObjectNode record) {
+        try {
+            writer.write(objectMapper.writeValueAsString(record));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to journal " + path, e);
+        }
+        journalRecords++;
+        return ++appended;
+    }
+
+    /**
+     * Forces the journal up to record {@code seq}. Writers arriving while a force runs wait for it and usually
+     * find their record covered by it. A compaction that swapped the journal meanwhile forced the rewritten
+     * one, which covers every record appended before it.
+     */
+    private void sync(long seq) {
+        if (!fsync) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (synced.get() >= seq) {
+                return;
+            }
+            final long target;
+            final FileChannel current;
+            lock.lock();
+            try {
+                target = appended;
+                current = channel;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                if (current != null) {
+                    current.force(false);
+                    synced.accumulateAndGet(target, Math::max);
+                }
+            } catch (ClosedChannelException e) {
+                log.debug("Journal {} was swapped or closed during sync", path);
+            }
+            if (synced.get() < seq) {
+                throw new IOException("Journal is closed");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync journal " + path, e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void compactIfSparse() {
+        if (journalRecords > Math.max(MIN_COMPACTION_RECORDS, 2L * entries.size())) {
+            compact();
+        }
+    }
+
+    private void openWriter() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.iprody.xpayment.adapter.app.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void tryAcquire_shouldRejectWhenLimitIsReached() throws InterruptedException {
+        // given
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 2, 10, 100, 0.5);
+
+        // when & then
+        assertTrue(limit.tryAcquire(0, TimeUnit.MILLISECONDS));
+        assertTrue(limit.tryAcquire(0, TimeUnit.MILLISECONDS));
+        assertFalse(limit.tryAcquire(0, TimeUnit.MILLISECONDS));
+        assertEquals(2, limit.inFlight());
+    }
+
+    @Test
+    void release_shouldShrinkLimit_onSlowOrFailedCalls() throws InterruptedException {
+        // given
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 8, 10, 100, 0.5);
+
+        // when
+        limit.tryAcquire(0, TimeUnit.MILLISECONDS);
+        limit.release(SLOW, false);
+        limit.tryAcquire(0, TimeUnit.MILLISECONDS);
+        limit.release(FAST, true);
+        limit.tryAcquire(0, TimeUnit.MILLISECONDS);
+        limit.release(FAST, true);
+
+        // then
+        assertEquals(2, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void release_shouldGrowLimit_whenFastCallsUseIt() throws InterruptedException {
+        // given
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 2, 10, 100, 0.5);
+
+        // when
+        for (int round = 0; round < 10; round++) {
+            final int slots = limit.limit();
+            for (int i = 0; i < slots; i++) {
+                limit.tryAcquire(0, TimeUnit.MILLISECONDS);
+            }
+            for (int i = 0; i < slots; i++) {
+                limit.release(FAST, false);
+            }
+        }
+
+        // then
+        assertTrue(limit.limit() > 2);
+    }
+
+    @Test
+    void cancel_shouldFreeSlotWithoutChangingLimit() throws InterruptedException {
+        // given
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 10, 100, 0.5);
+        limit.tryAcquire(0, TimeUnit.MILLISECONDS);
+
+        // when
+        limit.cancel();
+
+        // then
+        assertEquals(1, limit.limit());
+        assertTrue(limit.tryAcquire(0, TimeUnit.MILLISECONDS));
+    }
+}
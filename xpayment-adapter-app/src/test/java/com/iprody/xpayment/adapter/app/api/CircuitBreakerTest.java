@@ -0,0 +1,84 @@
+package com.iprody.xpayment.adapter.app.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final CircuitBreaker circuit = new CircuitBreaker("charge", 0.5, 10, 4, 1_000, 2, now::get);
+
+    @Test
+    void onFailure_shouldOpenCircuit_whenFailureRateReachesThreshold() {
+        // given
+        circuit.onSuccess();
+        circuit.onFailure();
+        circuit.onSuccess();
+
+        // when
+        circuit.onFailure();
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuit.state());
+        assertFalse(circuit.tryAcquirePermission());
+    }
+
+    @Test
+    void onFailure_shouldKeepCircuitClosed_beforeMinimumCalls() {
+        // when
+        circuit.onFailure();
+        circuit.onFailure();
+        circuit.onFailure();
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.state());
+    }
+
+    @Test
+    void state_shouldAllowTrialCallsAfterOpenDuration_andCloseWhenTheySucceed() {
+        // given
+        open();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+
+        // when
+        final boolean first = circuit.tryAcquirePermission();
+        final boolean second = circuit.tryAcquirePermission();
+        final boolean third = circuit.tryAcquirePermission();
+        circuit.onSuccess();
+        circuit.onSuccess();
+
+        // then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.state());
+    }
+
+    @Test
+    void onFailure_shouldReopenCircuit_whenTrialCallFails() {
+        // given
+        open();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        circuit.tryAcquirePermission();
+
+        // when
+        circuit.onFailure();
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuit.state());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            circuit.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuit.state());
+    }
+}
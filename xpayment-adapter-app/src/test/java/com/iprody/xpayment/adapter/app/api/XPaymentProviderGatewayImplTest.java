@@ -0,0 +1,216 @@
+package com.iprody.xpayment.adapter.app.api;
+
+import com.iprody.xpayment.adapter.app.dto.ChargeResponseDto;
+import com.iprody.xpayment.adapter.app.mapper.ChargeRequestMapper;
+import com.iprody.xpayment.adapter.app.mapper.ChargeResponseMapper;
+import com.iprody.xpayment.app.api.ApiClient;
+import com.iprody.xpayment.app.api.client.DefaultApi;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XPaymentProviderGatewayImplTest {
+
+    private final ProviderCallExecutor providerCallExecutor = new ProviderCallExecutor(true, 4);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private XPaymentStubServer stub;
+
+    @AfterEach
+    void tearDown() {
+        providerCallExecutor.close();
+        stub.close();
+    }
+
+    @Test
+    void retrieveCharges_shouldFetchChargesInBatches() throws IOException {
+        // given
+        stub = new XPaymentStubServer(true);
+        final List<UUID> ids = charges(5);
+        final XPaymentProviderGateway gateway = gateway(2);
+
+        // when
+        final List<ChargeResponseDto> charges = gateway.retrieveCharges(ids).charges();
+
+        // then
+        assertEquals(5, charges.size());
+        assertEquals(3, stub.listRequests());
+        assertEquals(0, stub.singleRequests());
+    }
+
+    @Test
+    void retrieveCharges_shouldFallBackToSingleRetrievals_whenBatchEndpointIsMissing() throws IOException {
+        // given
+        stub = new XPaymentStubServer(false);
+        final List<UUID> ids = charges(3);
+        final XPaymentProviderGateway gateway = gateway(10);
+
+        // when
+        final List<ChargeResponseDto> first = gateway.retrieveCharges(ids).charges();
+        final List<ChargeResponseDto> second = gateway.retrieveCharges(ids).charges();
+
+        // then
+        assertEquals(3, first.size());
+        assertEquals(3, second.size());
+        assertEquals(1, stub.listRequests());
+        assertEquals(6, stub.singleRequests());
+    }
+
+    @Test
+    void retrieveCharges_shouldSkipUnknownCharges() throws IOException {
+        // given
+        stub = new XPaymentStubServer(false);
+        final List<UUID> ids = charges(2);
+        final XPaymentProviderGateway gateway = gateway(10);
+
+        // when
+        final ChargeRetrieval retrieval = gateway.retrieveCharges(List.of(ids.get(0), UUID.randomUUID()));
+
+        // then
+        assertEquals(1, retrieval.charges().size());
+        assertEquals(ids.get(0), retrieval.charges().get(0).id());
+        assertTrue(retrieval.failed().isEmpty());
+    }
+
+    @Test
+    void retrieveCharges_shouldReportFailedCharges_whenSingleRetrievalFails() throws IOException {
+        // given
+        stub = new XPaymentStubServer(false);
+        final List<UUID> ids = charges(3);
+        stub.failing(ids.get(1));
+        final XPaymentProviderGateway gateway = gateway(10);
+
+        // when
+        final ChargeRetrieval retrieval = gateway.retrieveCharges(ids);
+
+        // then
+        assertEquals(2, retrieval.charges().size());
+        assertEquals(Set.of(ids.get(1)), retrieval.failed());
+    }
+
+    @Test
+    void retrieveCharges_shouldReportWholeChunkAsFailed_whenBatchRequestFails() throws IOException {
+        // given
+        stub = new XPaymentStubServer(true);
+        final List<UUID> ids = charges(4);
+        stub.failing(ids.get(3));
+        final XPaymentProviderGateway gateway = gateway(2);
+
+        // when
+        final ChargeRetrieval retrieval = gateway.retrieveCharges(ids);
+
+        // then
+        assertEquals(2, retrieval.charges().size());
+        assertEquals(Set.of(ids.get(2), ids.get(3)), retrieval.failed());
+    }
+
+    @Test
+    void retrieveCharges_shouldStopCallingProvider_whenSingleRetrievalFailuresOpenTheCircuit() throws IOException {
+        // given
+        stub = new XPaymentStubServer(false);
+        final List<UUID> ids = charges(4);
+        ids.forEach(stub::failing);
+        final XPaymentProviderGateway gateway = resilient(gateway(10));
+        final ChargeRetrieval first = gateway.retrieveCharges(ids);
+        final int singleRequests = stub.singleRequests();
+
+        // when
+        final ChargeRetrieval second = gateway.retrieveCharges(ids);
+
+        // then
+        assertEquals(Set.copyOf(ids), first.failed());
+        assertEquals(Set.copyOf(ids), second.failed());
+        assertEquals(singleRequests, stub.singleRequests());
+    }
+
+    @Test
+    void retrieveCharges_shouldRecordProviderCallsByOutcomeAndStatusClass() throws IOException {
+        // given
+        stub = new XPaymentStubServer(false);
+        final List<UUID> ids = charges(2);
+        stub.failing(ids.get(1));
+        final XPaymentProviderGateway gateway = gateway(10);
+
+        // when
+        gateway.retrieveCharges(List.of(ids.get(0), ids.get(1), UUID.randomUUID()));
+
+        // then
+        assertEquals(1, requests("listCharges", "client_error", "4xx"));
+        assertEquals(1, requests("retrieveCharge", "success", "2xx"));
+        assertEquals(1, requests("retrieveCharge", "client_error", "4xx"));
+        assertEquals(1, requests("retrieveCharge", "server_error", "5xx"));
+    }
+
+    @Test
+    void retrieveCharge_shouldRecordIoError_whenProviderIsUnreachable() throws IOException {
+        // given
+        stub = new XPaymentStubServer(false);
+        final int unusedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unusedPort = socket.getLocalPort();
+        }
+        final XPaymentProviderGateway gateway = gateway(10, "http://localhost:" + unusedPort);
+
+        // when
+        assertThrows(ResourceAccessException.class, () -> gateway.retrieveCharge(UUID.randomUUID()));
+
+        // then
+        assertEquals(1, requests("retrieveCharge", "io_error", "none"));
+    }
+
+    private long requests(String operation, String outcome, String status) {
+        return meterRegistry.get("xpayment.provider.requests")
+            .tags("operation", operation, "outcome", outcome, "status", status)
+            .timer()
+            .count();
+    }
+
+    private List<UUID> charges(int count) {
+        final List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final UUID id = UUID.randomUUID();
+            stub.charge(id, i % 2 == 0 ? "SUCCEEDED" : "PROCESSING");
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private XPaymentProviderGatewayImpl gateway(int batchSize) {
+        return gateway(batchSize, stub.url());
+    }
+
+    private XPaymentProviderGatewayImpl gateway(int batchSize, String url) {
+        final ApiClient apiClient = new ApiClient(new RestTemplate());
+        apiClient.setBasePath(url);
+
+        return new XPaymentProviderGatewayImpl(
+            new DefaultApi(apiClient),
+            Mappers.getMapper(ChargeRequestMapper.class),
+            Mappers.getMapper(ChargeResponseMapper.class),
+            providerCallExecutor,
+            meterRegistry,
+            batchSize,
+            60_000
+        );
+    }
+
+    private ResilientXPaymentProviderGateway resilient(XPaymentProviderGatewayImpl delegate) {
+        return new ResilientXPaymentProviderGateway(
+            delegate, meterRegistry, 10, 10, 1, 4, 2_000, 0.9, 1_000, 1_000, 0.5, 2, 2, 60_000, 1);
+    }
+}
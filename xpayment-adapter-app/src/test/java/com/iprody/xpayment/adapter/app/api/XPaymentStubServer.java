@@ -0,0 +1,121 @@
+package com.iprody.xpayment.adapter.app.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Minimal stand-in for the X Payment provider: serves {@code GET /charges/{id}} and, when enabled,
+ * {@code GET /charges?ids=...} from an in-memory map of charge statuses. Charges marked as failing get a 500.
+ */
+class XPaymentStubServer implements AutoCloseable {
+
+    private static final String SERVER_ERROR = "{\"statusCode\":500,\"message\":\"Internal Server Error\"}";
+
+    private final HttpServer server;
+    private final Map<UUID, String> statuses = new ConcurrentHashMap<>();
+    private final Set<UUID> failing = ConcurrentHashMap.newKeySet();
+    private final boolean batchEnabled;
+
+    private final AtomicInteger listRequests = new AtomicInteger();
+    private final AtomicInteger singleRequests = new AtomicInteger();
+
+    XPaymentStubServer(boolean batchEnabled) throws IOException {
+        this.batchEnabled = batchEnabled;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/charges", this::handle);
+        this.server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void charge(UUID id, String status) {
+        statuses.put(id, status);
+    }
+
+    /**
+     * Makes every request that asks for the charge fail with 500.
+     */
+    void failing(UUID id) {
+        failing.add(id);
+    }
+
+    int listRequests() {
+        return listRequests.get();
+    }
+
+    int singleRequests() {
+        return singleRequests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+        final String query = exchange.getRequestURI().getQuery();
+
+        if (path.equals("/charges")) {
+            listRequests.incrementAndGet();
+            if (!batchEnabled) {
+                respond(exchange, 404, "{\"statusCode\":404,\"message\":\"Not Found\"}");
+                return;
+            }
+            final List<UUID> ids = Arrays.stream(query.substring(query.indexOf('=') + 1).split(","))
+                .map(UUID::fromString)
+                .toList();
+            if (ids.stream().anyMatch(failing::contains)) {
+                respond(exchange, 500, SERVER_ERROR);
+                return;
+            }
+            final String data = ids.stream()
+                .filter(statuses::containsKey)
+                .map(this::chargeJson)
+                .collect(Collectors.joining(","));
+            respond(exchange, 200, "{\"data\":[" + data + "]}");
+            return;
+        }
+
+        singleRequests.incrementAndGet();
+        final UUID id = UUID.fromString(path.substring("/charges/".length()));
+        if (failing.contains(id)) {
+            respond(exchange, 500, SERVER_ERROR);
+            return;
+        }
+        if (!statuses.containsKey(id)) {
+            respond(exchange, 404, "{\"statusCode\":404,\"message\":\"Not Found\"}");
+            return;
+        }
+        respond(exchange, 200, chargeJson(id));
+    }
+
+    private String chargeJson(UUID id) {
+        return String.format(
+            "{\"id\":\"%s\",\"amount\":\"10.00\",\"currency\":\"USD\",\"status\":\"%s\"}", id, statuses.get(id));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
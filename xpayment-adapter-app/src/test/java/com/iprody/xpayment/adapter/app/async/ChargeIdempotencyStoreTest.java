@@ -0,0 +1,80 @@
+package com.iprody.xpayment.adapter.app.async;
+
+import com.iprody.xpayment.adapter.app.store.FileJournalStore;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChargeIdempotencyStoreTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void find_shouldReturnRecordedResponse_afterReopen() {
+        // given
+        final UUID paymentId = UUID.randomUUID();
+        final XPaymentAdapterResponseMessage response = response(paymentId);
+        try (FileJournalStore<ChargeRecord> journal = journal()) {
+            store(journal, 60_000).record(paymentId, response);
+        }
+
+        // when
+        final Optional<XPaymentAdapterResponseMessage> found;
+        try (FileJournalStore<ChargeRecord> journal = journal()) {
+            found = store(journal, 60_000).find(paymentId);
+        }
+
+        // then
+        assertEquals(Optional.of(response), found);
+    }
+
+    @Test
+    void evictExpired_shouldDropRecordsOlderThanTtl() {
+        // given
+        final UUID paymentId = UUID.randomUUID();
+        try (FileJournalStore<ChargeRecord> journal = journal()) {
+            final ChargeIdempotencyStore store = store(journal, -1);
+            store.record(paymentId, response(paymentId));
+
+            // when
+            final Optional<XPaymentAdapterResponseMessage> beforeSweep = store.find(paymentId);
+            store.evictExpired();
+
+            // then
+            assertTrue(beforeSweep.isEmpty());
+            assertEquals(0, journal.size());
+        }
+    }
+
+    private FileJournalStore<ChargeRecord> journal() {
+        return new FileJournalStore<>(dir.resolve("charges.journal"), ChargeRecord.class, false);
+    }
+
+    private static ChargeIdempotencyStore store(FileJournalStore<ChargeRecord> journal, long ttlMs) {
+        return new ChargeIdempotencyStore(journal, new SimpleMeterRegistry(), ttlMs);
+    }
+
+    private static XPaymentAdapterResponseMessage response(UUID paymentId) {
+        return new XPaymentAdapterResponseMessage(
+            UUID.randomUUID(),
+            paymentId,
+            new BigDecimal("125.50"),
+            "USD",
+            UUID.randomUUID(),
+            XPaymentAdapterStatus.PROCESSING,
+            Instant.parse("2026-01-01T10:00:00Z")
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package com.iprody.xpayment.adapter.app.async;
+
+import com.iprody.xpayment.adapter.app.api.XPaymentProviderGateway;
+import com.iprody.xpayment.adapter.app.checkstate.PaymentStateCheckRegister;
+import com.iprody.xpayment.contract.AsyncSender;
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RequestMessageHandlerTest {
+
+    private final XPaymentProviderGateway gateway = mock(XPaymentProviderGateway.class);
+    @SuppressWarnings("unchecked")
+    private final AsyncSender<XPaymentAdapterResponseMessage> sender = mock(AsyncSender.class);
+    private final PaymentStateCheckRegister register = mock(PaymentStateCheckRegister.class);
+    private final ChargeIdempotencyStore idempotencyStore = mock(ChargeIdempotencyStore.class);
+
+    private final RequestMessageHandler handler =
+        new RequestMessageHandler(gateway, sender, register, idempotencyStore, new SimpleMeterRegistry());
+
+    @Test
+    void handle_shouldRegisterStateCheck_whenRequestWasAlreadyCharged() {
+        // given
+        final UUID paymentId = UUID.randomUUID();
+        final XPaymentAdapterResponseMessage recorded = XPaymentAdapterResponseMessage.builder()
+            .messageId(UUID.randomUUID())
+            .paymentGuid(paymentId)
+            .transactionRefId(UUID.randomUUID())
+            .amount(new BigDecimal("10.00"))
+            .currency("USD")
+            .status(XPaymentAdapterStatus.PROCESSING)
+            .occurredAt(Instant.now())
+            .build();
+        when(idempotencyStore.find(paymentId)).thenReturn(Optional.of(recorded));
+
+        // when
+        handler.handle(XPaymentAdapterRequestMessage.builder()
+            .messageId(UUID.randomUUID())
+            .paymentId(paymentId)
+            .amount(new BigDecimal("10.00"))
+            .currency("USD")
+            .occurredAt(Instant.now())
+            .build());
+
+        // then
+        verify(gateway, never()).createCharge(any());
+        verify(register).register(recorded.transactionRefId(), paymentId, recorded.amount(), recorded.currency());
+        verify(sender).send(recorded);
+    }
+
+    @Test
+    void handle_shouldRethrowWithoutCancelling_whenChargeOutcomeIsUnknown() {
+        // given
+        final XPaymentAdapterRequestMessage message = request();
+        when(gateway.createCharge(any())).thenThrow(new ResourceAccessException("Read timed out"));
+
+        // when
+        assertThrows(ResourceAccessException.class, () -> handler.handle(message));
+
+        // then
+        verify(sender, never()).send(any());
+        verify(idempotencyStore, never()).record(any(), any());
+    }
+
+    @Test
+    void handle_shouldSendCanceled_whenProviderRejectsCharge() {
+        // given
+        final XPaymentAdapterRequestMessage message = request();
+        when(gateway.createCharge(any())).thenThrow(HttpClientErrorException.create(
+            HttpStatus.PAYMENT_REQUIRED, "Payment Required", HttpHeaders.EMPTY, new byte[0], null));
+
+        // when
+        handler.handle(message);
+
+        // then
+        final ArgumentCaptor<XPaymentAdapterResponseMessage> sent =
+            ArgumentCaptor.forClass(XPaymentAdapterResponseMessage.class);
+        verify(sender).send(sent.capture());
+        assertEquals(XPaymentAdapterStatus.CANCELED, sent.getValue().status());
+        assertEquals(message.paymentId(), sent.getValue().paymentGuid());
+    }
+
+    private static XPaymentAdapterRequestMessage request() {
+        return XPaymentAdapterRequestMessage.builder()
+            .messageId(UUID.randomUUID())
+            .paymentId(UUID.randomUUID())
+            .amount(new BigDecimal("10.00"))
+            .currency("USD")
+            .occurredAt(Instant.now())
+            .build();
+    }
+}
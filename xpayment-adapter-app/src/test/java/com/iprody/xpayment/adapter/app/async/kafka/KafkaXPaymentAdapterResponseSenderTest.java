@@ -0,0 +1,113 @@
+package com.iprody.xpayment.adapter.app.async.kafka;
+
+import com.iprody.xpayment.adapter.app.store.FileJournalStore;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KafkaXPaymentAdapterResponseSenderTest {
+
+    private static final String TOPIC = "xpayment-adapter.responses";
+
+    @TempDir
+    private Path dir;
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, XPaymentAdapterResponseMessage> template = mock(KafkaTemplate.class);
+
+    private FileJournalStore<XPaymentAdapterResponseMessage> outbox;
+    private KafkaXPaymentAdapterResponseSender sender;
+
+    @BeforeEach
+    void setUp() {
+        outbox = new FileJournalStore<>(dir.resolve("outbox.journal"), XPaymentAdapterResponseMessage.class, false);
+        sender = new KafkaXPaymentAdapterResponseSender(template, outbox, new SimpleMeterRegistry(), TOPIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.close();
+    }
+
+    @Test
+    void redeliver_shouldNotResendResponse_whenItsFirstSendIsPending() {
+        // given
+        final CompletableFuture<SendResult<String, XPaymentAdapterResponseMessage>> pending =
+            new CompletableFuture<>();
+        when(template.send(eq(TOPIC), anyString(), any())).thenReturn(pending);
+        sender.send(response());
+
+        // when
+        sender.redeliver();
+
+        // then
+        verify(template, times(1)).send(eq(TOPIC), anyString(), any());
+        assertEquals(1, outbox.size());
+    }
+
+    @Test
+    void redeliver_shouldResendResponse_whenItsSendFailed() {
+        // given
+        when(template.send(eq(TOPIC), anyString(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        sender.send(response());
+
+        // when
+        sender.redeliver();
+        sender.removeAcknowledged();
+
+        // then
+        verify(template, times(2)).send(eq(TOPIC), anyString(), any());
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    void send_shouldKeepAcknowledgedResponseOutOfRedelivery_untilItIsRemoved() {
+        // given
+        when(template.send(eq(TOPIC), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        sender.send(response());
+
+        // when
+        sender.redeliver();
+
+        // then
+        verify(template, times(1)).send(eq(TOPIC), anyString(), any());
+        assertEquals(1, outbox.size());
+        sender.removeAcknowledged();
+        assertEquals(0, outbox.size());
+    }
+
+    private static XPaymentAdapterResponseMessage response() {
+        return XPaymentAdapterResponseMessage.builder()
+            .messageId(UUID.randomUUID())
+            .paymentGuid(UUID.randomUUID())
+            .transactionRefId(UUID.randomUUID())
+            .amount(new BigDecimal("10.00"))
+            .currency("USD")
+            .status(XPaymentAdapterStatus.SUCCEEDED)
+            .occurredAt(Instant.now())
+            .build();
+    }
+}
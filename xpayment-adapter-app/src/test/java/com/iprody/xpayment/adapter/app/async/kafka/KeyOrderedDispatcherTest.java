@@ -0,0 +1,96 @@
+package com.iprody.xpayment.adapter.app.async.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyOrderedDispatcherTest {
+
+    private final KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher(16, 50, new SimpleMeterRegistry());
+
+    @Test
+    void submit_shouldRunSameKeyTasksInOrder() {
+        // given
+        final List<String> started = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Void> first = new CompletableFuture<>();
+
+        // when
+        final CompletableFuture<Void> a1 = dispatcher.submit("a", () -> {
+            started.add("a1");
+            return first;
+        });
+        final CompletableFuture<Void> a2 = dispatcher.submit("a", () -> {
+            started.add("a2");
+            return CompletableFuture.completedFuture(null);
+        });
+        final CompletableFuture<Void> b1 = dispatcher.submit("b", () -> {
+            started.add("b1");
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // then
+        assertEquals(List.of("a1", "b1"), started);
+        assertTrue(b1.isDone());
+        assertFalse(a2.isDone());
+
+        first.complete(null);
+        assertEquals(List.of("a1", "b1", "a2"), started);
+        assertTrue(a1.isDone());
+        assertTrue(a2.isDone());
+        assertEquals(0, dispatcher.inFlight());
+    }
+
+    @Test
+    void submit_shouldRunNextTask_whenPredecessorFails() {
+        // given
+        final CompletableFuture<Void> failed = dispatcher.submit("a",
+            () -> CompletableFuture.failedFuture(new IllegalStateException("provider down")));
+
+        // when
+        final CompletableFuture<Void> next = dispatcher.submit("a", () -> CompletableFuture.completedFuture(null));
+
+        // then
+        assertTrue(failed.isCompletedExceptionally());
+        assertTrue(next.isDone());
+        assertFalse(next.isCompletedExceptionally());
+    }
+
+    @Test
+    void submit_shouldBlockSubmitter_whenInFlightLimitIsReached() throws Exception {
+        // given
+        final KeyOrderedDispatcher limited = new KeyOrderedDispatcher(1, 5_000, new SimpleMeterRegistry());
+        final CompletableFuture<Void> running = new CompletableFuture<>();
+        limited.submit("a", () -> running);
+
+        // when
+        final CompletableFuture<CompletableFuture<Void>> second = CompletableFuture.supplyAsync(
+            () -> limited.submit("b", () -> CompletableFuture.completedFuture(null)));
+
+        // then
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+        running.complete(null);
+        assertTrue(second.get(1, TimeUnit.SECONDS).isDone());
+    }
+
+    @Test
+    void submit_shouldThrow_whenNoSlotFreesUpInTime() {
+        // given
+        final KeyOrderedDispatcher limited = new KeyOrderedDispatcher(1, 50, new SimpleMeterRegistry());
+        limited.submit("a", CompletableFuture::new);
+
+        // when & then
+        assertThrows(DispatcherSaturatedException.class,
+            () -> limited.submit("b", () -> CompletableFuture.completedFuture(null)));
+        assertEquals(1, limited.inFlight());
+    }
+}
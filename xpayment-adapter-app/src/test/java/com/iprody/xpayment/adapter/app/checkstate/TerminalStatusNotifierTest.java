@@ -0,0 +1,116 @@
+package com.iprody.xpayment.adapter.app.checkstate;
+
+import com.iprody.xpayment.adapter.app.dto.ChargeResponseDto;
+import com.iprody.xpayment.contract.AsyncSender;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TerminalStatusNotifierTest {
+
+    private final List<List<XPaymentAdapterResponseMessage>> batches = new ArrayList<>();
+    private final List<CompletableFuture<Void>> sends = new ArrayList<>();
+
+    private final AsyncSender<XPaymentAdapterResponseMessage> sender = new AsyncSender<>() {
+        @Override
+        public void send(XPaymentAdapterResponseMessage message) {
+            batches.add(List.of(message));
+        }
+
+        @Override
+        public List<CompletableFuture<Void>> sendAll(List<XPaymentAdapterResponseMessage> messages) {
+            batches.add(messages);
+            final List<CompletableFuture<Void>> futures = messages.stream()
+                .map(message -> new CompletableFuture<Void>())
+                .toList();
+            sends.addAll(futures);
+            return futures;
+        }
+    };
+
+    private final TerminalStatusNotifier notifier = new TerminalStatusNotifier(sender, new SimpleMeterRegistry());
+
+    @Test
+    void flush_shouldPublishOneMessagePerCharge() {
+        // given
+        final ChargeResponseDto succeeded = charge("SUCCEEDED", "2026-01-01T10:00:00Z");
+        final ChargeResponseDto canceled = charge("CANCELED", null);
+        final Instant detectedFrom = Instant.now();
+
+        // when
+        notifier.notify(succeeded, XPaymentAdapterStatus.SUCCEEDED);
+        notifier.notify(succeeded, XPaymentAdapterStatus.SUCCEEDED);
+        notifier.notify(canceled, XPaymentAdapterStatus.CANCELED);
+        notifier.flush();
+        notifier.flush();
+
+        // then
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        final XPaymentAdapterResponseMessage message = batches.get(0).stream()
+            .filter(m -> m.transactionRefId().equals(succeeded.id()))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(succeeded.order(), message.paymentGuid());
+        assertFalse(message.occurredAt().isBefore(detectedFrom));
+        assertFalse(message.occurredAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void notify_shouldCompleteOnlyOnceTheStatusIsSent() {
+        // given
+        final CompletableFuture<Void> published =
+            notifier.notify(charge("SUCCEEDED", null), XPaymentAdapterStatus.SUCCEEDED);
+
+        // when
+        notifier.flush();
+
+        // then
+        assertFalse(published.isDone());
+        sends.get(0).complete(null);
+        assertTrue(published.isDone());
+        assertFalse(published.isCompletedExceptionally());
+    }
+
+    @Test
+    void notify_shouldFail_whenSendingTheStatusFails() {
+        // given
+        final CompletableFuture<Void> published =
+            notifier.notify(charge("CANCELED", null), XPaymentAdapterStatus.CANCELED);
+        notifier.flush();
+
+        // when
+        sends.get(0).completeExceptionally(new IllegalStateException("broker unavailable"));
+
+        // then
+        assertTrue(published.isCompletedExceptionally());
+    }
+
+    private static ChargeResponseDto charge(String status, String chargedAt) {
+        return new ChargeResponseDto(
+            UUID.randomUUID(),
+            new BigDecimal("10.00"),
+            "USD",
+            new BigDecimal("10.00"),
+            "2026-01-01T09:59:00Z",
+            chargedAt,
+            "Henry Ford",
+            UUID.randomUUID(),
+            "henry.ford@email.com",
+            status,
+            null
+        );
+    }
+}
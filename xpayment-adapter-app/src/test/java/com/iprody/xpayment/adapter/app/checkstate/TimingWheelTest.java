@@ -0,0 +1,53 @@
+package com.iprody.xpayment.adapter.app.checkstate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void advanceTo_shouldExpireEntriesInDeadlineOrder() {
+        // given
+        final TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.schedule("late", 950);
+        wheel.schedule("early", 25);
+        wheel.schedule("middle", 170);
+
+        // when
+        final List<String> expired = new ArrayList<>();
+        for (long now = 0; now <= 1000; now += 10) {
+            expired.addAll(wheel.advanceTo(now));
+        }
+
+        // then
+        assertEquals(List.of("early", "middle", "late"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_shouldNotExpireEntriesBeforeTheirDeadline() {
+        // given
+        final TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.schedule("overflow", 5_000);
+
+        // when & then
+        assertTrue(wheel.advanceTo(4_990).isEmpty());
+        assertEquals(List.of("overflow"), wheel.advanceTo(5_000));
+    }
+
+    @Test
+    void schedule_shouldRejectPastDeadline() {
+        // given
+        final TimingWheel<String> wheel = new TimingWheel<>(10, 4, 1_000);
+
+        // when & then
+        assertFalse(wheel.schedule("past", 990));
+        assertEquals(0, wheel.size());
+    }
+}
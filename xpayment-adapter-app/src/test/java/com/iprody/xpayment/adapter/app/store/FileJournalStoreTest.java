@@ -0,0 +1,149 @@
+package com.iprody.xpayment.adapter.app.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileJournalStoreTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void open_shouldReplayPutsAndRemoves() {
+        // given
+        try (FileJournalStore<Item> store = open()) {
+            store.put("a", new Item("a", 1));
+            store.put("b", new Item("b", 1));
+            store.put("a", new Item("a", 2));
+            store.remove("b");
+        }
+
+        // when
+        try (FileJournalStore<Item> reopened = open()) {
+
+            // then
+            assertEquals(Optional.of(new Item("a", 2)), reopened.get("a"));
+            assertTrue(reopened.get("b").isEmpty());
+            assertEquals(1, reopened.size());
+        }
+    }
+
+    @Test
+    void open_shouldRecoverAppendedRecords_whenStoreWasNeverClosed() {
+        // given
+        final FileJournalStore<Item> crashed = open();
+        crashed.put("a", new Item("a", 1));
+        crashed.put("b", new Item("b", 1));
+
+        // when
+        try (FileJournalStore<Item> reopened = open()) {
+
+            // then
+            assertEquals(2, reopened.size());
+            assertEquals(Optional.of(new Item("b", 1)), reopened.get("b"));
+        }
+    }
+
+    @Test
+    void open_shouldSkipTornTrailingRecord() throws IOException {
+        // given
+        try (FileJournalStore<Item> store = open()) {
+            store.put("a", new Item("a", 1));
+        }
+        Files.writeString(journal(), "{\"op\":\"PUT\",\"key\":\"b\",\"val", StandardCharsets.UTF_8,
+            StandardOpenOption.APPEND);
+
+        // when
+        try (FileJournalStore<Item> reopened = open()) {
+
+            // then
+            assertEquals(Optional.of(new Item("a", 1)), reopened.get("a"));
+            assertEquals(1, reopened.size());
+        }
+    }
+
+    @Test
+    void open_shouldIgnoreLeftoverTempFile_whenCompactionCrashedBeforeMove() throws IOException {
+        // given
+        try (FileJournalStore<Item> store = open()) {
+            store.put("a", new Item("a", 1));
+        }
+        Files.writeString(journal().resolveSibling("items.journal.tmp"), "", StandardCharsets.UTF_8);
+
+        // when
+        try (FileJournalStore<Item> reopened = open()) {
+
+            // then
+            assertEquals(Optional.of(new Item("a", 1)), reopened.get("a"));
+        }
+    }
+
+    @Test
+    void put_shouldPersistEveryRecord_whenWritersShareFsync() throws InterruptedException {
+        // given
+        final Thread[] writers = new Thread[8];
+        try (FileJournalStore<Item> store = open()) {
+
+            // when
+            for (int t = 0; t < writers.length; t++) {
+                final String name = "w" + t;
+                writers[t] = Thread.startVirtualThread(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        store.put(name + "-" + i, new Item(name, i));
+                    }
+                });
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+
+        // then
+        try (FileJournalStore<Item> reopened = open()) {
+            assertEquals(400, reopened.size());
+            assertEquals(Optional.of(new Item("w7", 49)), reopened.get("w7-49"));
+        }
+    }
+
+    @Test
+    void compact_shouldKeepOnlyLiveEntries() throws IOException {
+        // given
+        try (FileJournalStore<Item> store = open()) {
+            for (int i = 0; i < 100; i++) {
+                store.put("a", new Item("a", i));
+                store.put("b" + i, new Item("b", i));
+                store.remove("b" + i);
+            }
+
+            // when
+            store.compact();
+        }
+
+        // then
+        assertEquals(1, Files.readAllLines(journal(), StandardCharsets.UTF_8).size());
+        try (FileJournalStore<Item> reopened = open()) {
+            assertEquals(Optional.of(new Item("a", 99)), reopened.get("a"));
+            assertEquals(1, reopened.size());
+        }
+    }
+
+    private FileJournalStore<Item> open() {
+        return new FileJournalStore<>(journal(), Item.class, true);
+    }
+
+    private Path journal() {
+        return dir.resolve("items.journal");
+    }
+
+    record Item(String name, int count) { }
+}
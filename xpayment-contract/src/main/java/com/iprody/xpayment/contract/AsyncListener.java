@@ -1,4 +1,4 @@
-package com.iprody.payment.service.app.async;
+package com.iprody.xpayment.contract;
 
 public interface AsyncListener<T extends Message> {
     void onMessage(T message);
@@ -0,0 +1,20 @@
+package com.iprody.xpayment.contract;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncSender<T extends Message> {
+    void send(T message);
+
+    /**
+     * @return one future per message, in order, completing once the message has actually been sent or failed
+     */
+    List<CompletableFuture<Void>> sendAll(List<T> messages);
+
+    /**
+     * @return true when the sender can't currently take more messages without blocking the caller
+     */
+    default boolean isSaturated() {
+        return false;
+    }
+}
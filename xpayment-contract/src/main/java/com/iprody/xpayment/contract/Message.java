@@ -0,0 +1,9 @@
+package com.iprody.xpayment.contract;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface Message {
+    UUID messageId();
+    Instant occurredAt();
+}
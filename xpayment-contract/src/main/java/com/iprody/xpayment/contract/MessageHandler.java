@@ -0,0 +1,11 @@
+package com.iprody.xpayment.contract;
+
+import java.util.List;
+
+public interface MessageHandler<T extends Message> {
+    void handle(T message);
+
+    default void handleAll(List<T> messages) {
+        messages.forEach(this::handle);
+    }
+}
@@ -0,0 +1,146 @@
+package com.iprody.xpayment.contract;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Validates amount and currency of xpayment-adapter messages against ISO 4217, and that responses carry a status.
+ * <p>
+ * {@link #check} is the hot path: it returns a bitmask of violation codes ({@code 0} for a valid message) and
+ * doesn't allocate. Currency codes are three ASCII letters, so they index a table of 26<sup>3</sup> slots
+ * directly; every code has its own slot and a lookup is one array read. Human-readable messages are only built
+ * by {@link #describe} once a message is known to be invalid and goes to the DLT.
+ */
+public class XPaymentAdapterMessageValidator {
+
+    public static final int AMOUNT_REQUIRED = 1;
+    public static final int CURRENCY_REQUIRED = 1 << 1;
+    public static final int NEGATIVE_AMOUNT = 1 << 2;
+    public static final int UNKNOWN_CURRENCY = 1 << 3;
+    public static final int SCALE_EXCEEDED = 1 << 4;
+    public static final int STATUS_REQUIRED = 1 << 5;
+
+    private static final int ALPHABET = 26;
+    private static final byte UNKNOWN = 0;
+    private static final byte ANY_SCALE = 1;
+    private static final byte DIGITS_OFFSET = 2;
+
+    /**
+     * Fraction digits per currency code, stored as {@code digits + 2}; {@code 0} marks an unknown code and
+     * {@code 1} a code without a default fraction (XAU, XXX, ...), whose scale isn't checked.
+     */
+    private static final byte[] FRACTION_DIGITS = new byte[ALPHABET * ALPHABET * ALPHABET];
+
+    static {
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            final int slot = slot(currency.getCurrencyCode());
+            if (slot >= 0) {
+                final int digits = currency.getDefaultFractionDigits();
+                FRACTION_DIGITS[slot] = digits < 0 ? ANY_SCALE : (byte) (digits + DIGITS_OFFSET);
+            }
+        }
+    }
+
+    public int check(XPaymentAdapterRequestMessage message) {
+        return check(message.amount(), message.currency());
+    }
+
+    public int check(XPaymentAdapterResponseMessage message) {
+        final int violations = check(message.amount(), message.currency());
+        return message.status() == null ? violations | STATUS_REQUIRED : violations;
+    }
+
+    public List<String> describe(XPaymentAdapterRequestMessage message, int violations) {
+        return describe(message.amount(), message.currency(), violations);
+    }
+
+    public List<String> describe(XPaymentAdapterResponseMessage message, int violations) {
+        return describe(message.amount(), message.currency(), violations);
+    }
+
+    public List<String> validate(XPaymentAdapterRequestMessage message) {
+        return describe(message, check(message));
+    }
+
+    public List<String> validate(XPaymentAdapterResponseMessage message) {
+        return describe(message, check(message));
+    }
+
+    private static int check(BigDecimal amount, String currency) {
+        int violations = 0;
+
+        if (amount == null) {
+            violations |= AMOUNT_REQUIRED;
+        }
+
+        if (currency == null || currency.isBlank()) {
+            violations |= CURRENCY_REQUIRED;
+        }
+
+        if (violations != 0) {
+            return violations;
+        }
+
+        if (amount.signum() < 0) {
+            violations |= NEGATIVE_AMOUNT;
+        }
+
+        final int slot = slot(currency);
+        final byte entry = slot < 0 ? UNKNOWN : FRACTION_DIGITS[slot];
+        if (entry == UNKNOWN) {
+            violations |= UNKNOWN_CURRENCY;
+        } else if (entry != ANY_SCALE && amount.scale() > entry - DIGITS_OFFSET) {
+            violations |= SCALE_EXCEEDED;
+        }
+
+        return violations;
+    }
+
+    private static List<String> describe(BigDecimal amount, String currency, int violations) {
+        if (violations == 0) {
+            return List.of();
+        }
+
+        final List<String> result = new ArrayList<>(Integer.bitCount(violations));
+        if ((violations & AMOUNT_REQUIRED) != 0) {
+            result.add("Amount is required");
+        }
+        if ((violations & CURRENCY_REQUIRED) != 0) {
+            result.add("Currency code is required");
+        }
+        if ((violations & NEGATIVE_AMOUNT) != 0) {
+            result.add("Amount must not be negative: " + amount);
+        }
+        if ((violations & UNKNOWN_CURRENCY) != 0) {
+            result.add("Unknown currency code: " + currency);
+        }
+        if ((violations & SCALE_EXCEEDED) != 0) {
+            result.add(String.format(
+                "Amount scale %d exceeds allowed %d fraction digits for currency %s (ISO 4217)",
+                amount.scale(), FRACTION_DIGITS[slot(currency)] - DIGITS_OFFSET, currency
+            ));
+        }
+        if ((violations & STATUS_REQUIRED) != 0) {
+            result.add("Status is required");
+        }
+        return result;
+    }
+
+    private static int slot(String code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+
+        int slot = 0;
+        for (int i = 0; i < 3; i++) {
+            final int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= ALPHABET) {
+                return -1;
+            }
+            slot = slot * ALPHABET + letter;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,16 @@
+package com.iprody.xpayment.contract;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Builder
+public record XPaymentAdapterRequestMessage(
+    UUID messageId,
+    UUID paymentId,
+    BigDecimal amount,
+    String currency,
+    Instant occurredAt
+) implements Message { }
@@ -0,0 +1,19 @@
+package com.iprody.xpayment.contract;
+
+import lombok.Builder;
+import lombok.With;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Builder
+public record XPaymentAdapterResponseMessage(
+    @With UUID messageId,
+    UUID paymentGuid,
+    BigDecimal amount,
+    String currency,
+    UUID transactionRefId,
+    XPaymentAdapterStatus status,
+    Instant occurredAt
+) implements Message { }
@@ -1,4 +1,4 @@
-package com.iprody.payment.service.app.async;
+package com.iprody.xpayment.contract;
 
 public enum XPaymentAdapterStatus {
     PROCESSING,
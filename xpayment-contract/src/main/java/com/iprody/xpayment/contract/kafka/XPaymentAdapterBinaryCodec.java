@@ -0,0 +1,211 @@
+package com.iprody.xpayment.contract.kafka;
+
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Binary layout of the xpayment-adapter messages, schema version {@value #SCHEMA_VERSION}:
+ * <pre>
+ * version:u8 | presence:u8 | fields present in the presence mask, in declaration order
+ * uuid = 16 bytes (msb, lsb) | amount = unscaled:i64, scale:u8 | currency = 3 ASCII bytes
+ * instant = epoch nanos:i64 | status = ordinal:u8
+ * </pre>
+ * Bit {@code i} of the presence mask is set when the {@code i}-th field of the message is not null.
+ * All numbers are big-endian. The status ordinal is part of the schema: new statuses are appended.
+ */
+final class XPaymentAdapterBinaryCodec {
+
+    static final byte SCHEMA_VERSION = 1;
+
+    private static final int UUID_BYTES = 16;
+    private static final int AMOUNT_BYTES = Long.BYTES + 1;
+    private static final int CURRENCY_BYTES = 3;
+    private static final int REQUEST_MAX_BYTES = 2 + 2 * UUID_BYTES + AMOUNT_BYTES + CURRENCY_BYTES + Long.BYTES;
+    private static final int RESPONSE_MAX_BYTES = 2 + 3 * UUID_BYTES + AMOUNT_BYTES + CURRENCY_BYTES + 1 + Long.BYTES;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final XPaymentAdapterStatus[] STATUSES = XPaymentAdapterStatus.values();
+
+    private XPaymentAdapterBinaryCodec() {
+    }
+
+    static byte[] encode(XPaymentAdapterRequestMessage message) {
+        final ByteBuffer buffer = ByteBuffer.allocate(REQUEST_MAX_BYTES);
+        buffer.put(SCHEMA_VERSION);
+        buffer.put(presence(
+            message.messageId(),
+            message.paymentId(),
+            message.amount(),
+            message.currency(),
+            message.occurredAt()
+        ));
+        putUuid(buffer, message.messageId());
+        putUuid(buffer, message.paymentId());
+        putAmount(buffer, message.amount());
+        putCurrency(buffer, message.currency());
+        putInstant(buffer, message.occurredAt());
+        return buffer.hasRemaining() ? Arrays.copyOf(buffer.array(), buffer.position()) : buffer.array();
+    }
+
+    static byte[] encode(XPaymentAdapterResponseMessage message) {
+        final ByteBuffer buffer = ByteBuffer.allocate(RESPONSE_MAX_BYTES);
+        buffer.put(SCHEMA_VERSION);
+        buffer.put(presence(
+            message.messageId(),
+            message.paymentGuid(),
+            message.amount(),
+            message.currency(),
+            message.transactionRefId(),
+            message.status(),
+            message.occurredAt()
+        ));
+        putUuid(buffer, message.messageId());
+        putUuid(buffer, message.paymentGuid());
+        putAmount(buffer, message.amount());
+        putCurrency(buffer, message.currency());
+        putUuid(buffer, message.transactionRefId());
+        if (message.status() != null) {
+            buffer.put((byte) message.status().ordinal());
+        }
+        putInstant(buffer, message.occurredAt());
+        return buffer.hasRemaining() ? Arrays.copyOf(buffer.array(), buffer.position()) : buffer.array();
+    }
+
+    static XPaymentAdapterRequestMessage decodeRequest(byte[] data) {
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(data);
+            final int presence = readPresence(buffer);
+
+            return new XPaymentAdapterRequestMessage(
+                isPresent(presence, 0) ? getUuid(buffer) : null,
+                isPresent(presence, 1) ? getUuid(buffer) : null,
+                isPresent(presence, 2) ? getAmount(buffer) : null,
+                isPresent(presence, 3) ? getCurrency(buffer) : null,
+                isPresent(presence, 4) ? getInstant(buffer) : null
+            );
+        } catch (BufferUnderflowException e) {
+            throw new SerializationException("Truncated xpayment-adapter request of " + data.length + " bytes", e);
+        }
+    }
+
+    static XPaymentAdapterResponseMessage decodeResponse(byte[] data) {
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(data);
+            final int presence = readPresence(buffer);
+
+            return new XPaymentAdapterResponseMessage(
+                isPresent(presence, 0) ? getUuid(buffer) : null,
+                isPresent(presence, 1) ? getUuid(buffer) : null,
+                isPresent(presence, 2) ? getAmount(buffer) : null,
+                isPresent(presence, 3) ? getCurrency(buffer) : null,
+                isPresent(presence, 4) ? getUuid(buffer) : null,
+                isPresent(presence, 5) ? getStatus(buffer) : null,
+                isPresent(presence, 6) ? getInstant(buffer) : null
+            );
+        } catch (BufferUnderflowException e) {
+            throw new SerializationException("Truncated xpayment-adapter response of " + data.length + " bytes", e);
+        }
+    }
+
+    private static int readPresence(ByteBuffer buffer) {
+        final byte version = buffer.get();
+        if (version != SCHEMA_VERSION) {
+            throw new SerializationException("Unsupported xpayment-adapter schema version: " + version);
+        }
+        return Byte.toUnsignedInt(buffer.get());
+    }
+
+    private static byte presence(Object... fields) {
+        int mask = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                mask |= 1 << i;
+            }
+        }
+        return (byte) mask;
+    }
+
+    private static boolean isPresent(int presence, int field) {
+        return (presence & 1 << field) != 0;
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID value) {
+        if (value != null) {
+            buffer.putLong(value.getMostSignificantBits()).putLong(value.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static void putAmount(ByteBuffer buffer, BigDecimal value) {
+        if (value == null) {
+            return;
+        }
+        if (value.scale() < 0 || value.scale() > Byte.MAX_VALUE || value.unscaledValue().bitLength() >= Long.SIZE) {
+            throw new SerializationException("Amount does not fit the binary wire format: " + value);
+        }
+        buffer.putLong(value.unscaledValue().longValue()).put((byte) value.scale());
+    }
+
+    private static BigDecimal getAmount(ByteBuffer buffer) {
+        return BigDecimal.valueOf(buffer.getLong(), buffer.get());
+    }
+
+    private static void putCurrency(ByteBuffer buffer, String value) {
+        if (value == null) {
+            return;
+        }
+        if (value.length() != CURRENCY_BYTES) {
+            throw new SerializationException("Currency is not a 3-letter code: " + value);
+        }
+        for (int i = 0; i < CURRENCY_BYTES; i++) {
+            final char c = value.charAt(i);
+            if (c > Byte.MAX_VALUE) {
+                throw new SerializationException("Currency is not a 3-letter code: " + value);
+            }
+            buffer.put((byte) c);
+        }
+    }
+
+    private static String getCurrency(ByteBuffer buffer) {
+        final byte[] code = new byte[CURRENCY_BYTES];
+        buffer.get(code);
+        return new String(code, StandardCharsets.US_ASCII);
+    }
+
+    private static void putInstant(ByteBuffer buffer, Instant value) {
+        if (value == null) {
+            return;
+        }
+        try {
+            final long secondsAsNanos = Math.multiplyExact(value.getEpochSecond(), NANOS_PER_SECOND);
+            buffer.putLong(Math.addExact(secondsAsNanos, value.getNano()));
+        } catch (ArithmeticException e) {
+            throw new SerializationException("Instant does not fit epoch nanos: " + value, e);
+        }
+    }
+
+    private static Instant getInstant(ByteBuffer buffer) {
+        final long nanos = buffer.getLong();
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND), Math.floorMod(nanos, NANOS_PER_SECOND));
+    }
+
+    private static XPaymentAdapterStatus getStatus(ByteBuffer buffer) {
+        final int ordinal = Byte.toUnsignedInt(buffer.get());
+        if (ordinal >= STATUSES.length) {
+            throw new SerializationException("Unknown xpayment-adapter status ordinal: " + ordinal);
+        }
+        return STATUSES[ordinal];
+    }
+}
@@ -0,0 +1,65 @@
+package com.iprody.xpayment.contract.kafka;
+
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Writes xpayment-adapter messages in the {@link XPaymentAdapterWireFormat} selected by the
+ * {@value XPaymentAdapterWireFormat#CONFIG} producer property, JSON by default. Requests and responses share one
+ * serializer, so a producer can also forward the messages it consumed, e.g. to a dead letter topic; the header
+ * always names the format that was actually written. Raw {@code byte[]} values, such as records that failed
+ * deserialization on their way to a DLT, are written as-is and keep the headers they came with.
+ */
+public class XPaymentAdapterMessageSerializer implements Serializer<Object> {
+
+    private final JsonSerializer<Object> json = new JsonSerializer<>();
+    private XPaymentAdapterWireFormat format = XPaymentAdapterWireFormat.JSON;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        format = XPaymentAdapterWireFormat.fromConfig(configs.get(XPaymentAdapterWireFormat.CONFIG));
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data instanceof byte[] raw ? raw : json.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (data instanceof byte[] raw) {
+            return raw;
+        }
+        final byte[] binary = format == XPaymentAdapterWireFormat.BINARY ? encode(data) : null;
+
+        headers.remove(XPaymentAdapterWireFormat.HEADER);
+        if (binary != null) {
+            headers.add(XPaymentAdapterWireFormat.HEADER, XPaymentAdapterWireFormat.BINARY.headerValue());
+            return binary;
+        }
+        headers.add(XPaymentAdapterWireFormat.HEADER, XPaymentAdapterWireFormat.JSON.headerValue());
+        return json.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+
+    private static byte[] encode(Object data) {
+        return switch (data) {
+            case XPaymentAdapterRequestMessage request -> XPaymentAdapterBinaryCodec.encode(request);
+            case XPaymentAdapterResponseMessage response -> XPaymentAdapterBinaryCodec.encode(response);
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.iprody.xpayment.contract.kafka;
+
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Reads responses in whichever {@link XPaymentAdapterWireFormat} their producer announced in the record header.
+ * Records without the header come from producers that predate the binary format and are read as JSON.
+ * JSON is always read as {@link XPaymentAdapterResponseMessage}, so {@code spring.json.*} consumer properties
+ * don't apply.
+ */
+public class XPaymentAdapterResponseDeserializer implements Deserializer<XPaymentAdapterResponseMessage> {
+
+    private final JsonDeserializer<XPaymentAdapterResponseMessage> json =
+        new JsonDeserializer<>(XPaymentAdapterResponseMessage.class, false);
+
+    @Override
+    public XPaymentAdapterResponseMessage deserialize(String topic, byte[] data) {
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public XPaymentAdapterResponseMessage deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return XPaymentAdapterWireFormat.of(headers) == XPaymentAdapterWireFormat.BINARY
+            ? XPaymentAdapterBinaryCodec.decodeResponse(data)
+            : json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -0,0 +1,36 @@
+package com.iprody.xpayment.contract.kafka;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Value encodings of the xpayment-adapter topics. The producer picks one with the {@value #CONFIG} producer
+ * property and announces it in the {@value #HEADER} record header; consumers decode by that header, so JSON and
+ * binary producers can share a topic while a rollout is in progress. Records without the header are JSON.
+ */
+public enum XPaymentAdapterWireFormat {
+    JSON,
+    BINARY;
+
+    public static final String HEADER = "xpayment-wire-format";
+    public static final String CONFIG = "xpayment.wire-format";
+
+    private final byte[] headerValue = name().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+
+    public byte[] headerValue() {
+        return headerValue.clone();
+    }
+
+    public static XPaymentAdapterWireFormat fromConfig(Object value) {
+        return value == null ? JSON : valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+    }
+
+    public static XPaymentAdapterWireFormat of(Headers headers) {
+        final Header header = headers == null ? null : headers.lastHeader(HEADER);
+        return header != null && Arrays.equals(BINARY.headerValue, header.value()) ? BINARY : JSON;
+    }
+}
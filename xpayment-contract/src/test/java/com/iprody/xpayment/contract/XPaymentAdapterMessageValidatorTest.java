@@ -0,0 +1,107 @@
+package com.iprody.xpayment.contract;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XPaymentAdapterMessageValidatorTest {
+
+    private final XPaymentAdapterMessageValidator validator = new XPaymentAdapterMessageValidator();
+
+    @Test
+    void check_shouldAcceptEveryAvailableCurrency() {
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            // given
+            final XPaymentAdapterRequestMessage message = request(BigDecimal.ONE, currency.getCurrencyCode());
+
+            // when & then
+            assertEquals(0, validator.check(message), currency.getCurrencyCode());
+        }
+    }
+
+    @Test
+    void check_shouldFlagScaleAboveCurrencyFractionDigits() {
+        // when & then
+        assertEquals(0, validator.check(request(new BigDecimal("10.50"), "USD")));
+        assertEquals(
+            XPaymentAdapterMessageValidator.SCALE_EXCEEDED,
+            validator.check(request(new BigDecimal("10.5"), "JPY"))
+        );
+        assertEquals(0, validator.check(request(new BigDecimal("10.505"), "BHD")));
+        assertEquals(0, validator.check(request(new BigDecimal("1.123456"), "XAU")));
+    }
+
+    @Test
+    void check_shouldFlagUnknownAndMalformedCurrencies() {
+        // when & then
+        for (String code : List.of("XYZ", "usd", "US", "USDX", "U$D")) {
+            assertEquals(
+                XPaymentAdapterMessageValidator.UNKNOWN_CURRENCY,
+                validator.check(request(BigDecimal.TEN, code)),
+                code
+            );
+        }
+    }
+
+    @Test
+    void check_shouldCombineViolations() {
+        // when & then
+        assertEquals(
+            XPaymentAdapterMessageValidator.AMOUNT_REQUIRED | XPaymentAdapterMessageValidator.CURRENCY_REQUIRED,
+            validator.check(request(null, " "))
+        );
+        assertEquals(
+            XPaymentAdapterMessageValidator.NEGATIVE_AMOUNT | XPaymentAdapterMessageValidator.SCALE_EXCEEDED,
+            validator.check(request(new BigDecimal("-1.001"), "EUR"))
+        );
+    }
+
+    @Test
+    void validate_shouldDescribeViolations() {
+        // given
+        final XPaymentAdapterRequestMessage message = request(new BigDecimal("-1.001"), "EUR");
+
+        // when
+        final List<String> violations = validator.validate(message);
+
+        // then
+        assertEquals(List.of(
+            "Amount must not be negative: -1.001",
+            "Amount scale 3 exceeds allowed 2 fraction digits for currency EUR (ISO 4217)"
+        ), violations);
+        assertTrue(validator.validate(request(BigDecimal.TEN, "EUR")).isEmpty());
+    }
+
+    @Test
+    void check_shouldRequireResponseStatus() {
+        // given
+        final XPaymentAdapterResponseMessage message = response(null);
+
+        // when & then
+        assertEquals(XPaymentAdapterMessageValidator.STATUS_REQUIRED, validator.check(message));
+        assertEquals(List.of("Status is required"), validator.validate(message));
+        assertEquals(0, validator.check(response(XPaymentAdapterStatus.PROCESSING)));
+    }
+
+    private static XPaymentAdapterRequestMessage request(BigDecimal amount, String currency) {
+        return new XPaymentAdapterRequestMessage(UUID.randomUUID(), UUID.randomUUID(), amount, currency, Instant.now());
+    }
+
+    private static XPaymentAdapterResponseMessage response(XPaymentAdapterStatus status) {
+        return XPaymentAdapterResponseMessage.builder()
+            .messageId(UUID.randomUUID())
+            .paymentGuid(UUID.randomUUID())
+            .amount(BigDecimal.TEN)
+            .currency("EUR")
+            .status(status)
+            .occurredAt(Instant.now())
+            .build();
+    }
+}
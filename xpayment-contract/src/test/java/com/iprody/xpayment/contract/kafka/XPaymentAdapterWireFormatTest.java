@@ -0,0 +1,148 @@
+package com.iprody.xpayment.contract.kafka;
+
+import com.iprody.xpayment.contract.XPaymentAdapterRequestMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterResponseMessage;
+import com.iprody.xpayment.contract.XPaymentAdapterStatus;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XPaymentAdapterWireFormatTest {
+
+    private static final String TOPIC = "xpayment-adapter";
+    private static final Instant OCCURRED_AT = Instant.parse("2026-01-01T10:00:00.123456789Z");
+
+    @Test
+    void binary_shouldRoundTripRequest() {
+        // given
+        final XPaymentAdapterRequestMessage message = new XPaymentAdapterRequestMessage(
+            UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("125.50"), "USD", OCCURRED_AT
+        );
+        final Headers headers = new RecordHeaders();
+
+        // when
+        final byte[] data = serializer("binary").serialize(TOPIC, headers, message);
+        final XPaymentAdapterRequestMessage read = new XPaymentAdapterRequestDeserializer()
+            .deserialize(TOPIC, headers, data);
+
+        // then
+        assertEquals(54, data.length);
+        assertArrayEquals(
+            XPaymentAdapterWireFormat.BINARY.headerValue(),
+            headers.lastHeader(XPaymentAdapterWireFormat.HEADER).value()
+        );
+        assertEquals(message, read);
+    }
+
+    @Test
+    void binary_shouldRoundTripResponseWithMissingFields() {
+        // given
+        final XPaymentAdapterResponseMessage message = XPaymentAdapterResponseMessage.builder()
+            .messageId(UUID.randomUUID())
+            .paymentGuid(UUID.randomUUID())
+            .amount(new BigDecimal("125.50"))
+            .currency("EUR")
+            .status(XPaymentAdapterStatus.SUCCEEDED)
+            .occurredAt(OCCURRED_AT)
+            .build();
+        final Headers headers = new RecordHeaders();
+
+        // when
+        final byte[] data = serializer("binary").serialize(TOPIC, headers, message);
+        final XPaymentAdapterResponseMessage read = new XPaymentAdapterResponseDeserializer()
+            .deserialize(TOPIC, headers, data);
+
+        // then
+        assertEquals(55, data.length);
+        assertEquals(message, read);
+    }
+
+    @Test
+    void json_shouldRoundTripResponse() {
+        // given
+        final XPaymentAdapterResponseMessage message = new XPaymentAdapterResponseMessage(
+            UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("10.00"), "USD", UUID.randomUUID(),
+            XPaymentAdapterStatus.CANCELED, OCCURRED_AT
+        );
+        final Headers headers = new RecordHeaders();
+
+        // when
+        final byte[] data = serializer("json").serialize(TOPIC, headers, message);
+        final XPaymentAdapterResponseMessage read = new XPaymentAdapterResponseDeserializer()
+            .deserialize(TOPIC, headers, data);
+
+        // then
+        assertArrayEquals(
+            XPaymentAdapterWireFormat.JSON.headerValue(),
+            headers.lastHeader(XPaymentAdapterWireFormat.HEADER).value()
+        );
+        assertEquals(message, read);
+    }
+
+    @Test
+    void deserialize_shouldReadJson_whenFormatHeaderIsMissing() {
+        // given
+        final UUID paymentGuid = UUID.randomUUID();
+        final byte[] json = ("{\"paymentGuid\":\"" + paymentGuid + "\",\"amount\":10.00,\"currency\":\"USD\","
+            + "\"status\":\"CANCELED\",\"occurredAt\":\"2026-01-01T10:00:00Z\"}").getBytes(StandardCharsets.UTF_8);
+
+        // when
+        final XPaymentAdapterResponseMessage message = new XPaymentAdapterResponseDeserializer()
+            .deserialize(TOPIC, new RecordHeaders(), json);
+
+        // then
+        assertEquals(paymentGuid, message.paymentGuid());
+        assertEquals(new BigDecimal("10.00"), message.amount());
+        assertEquals(XPaymentAdapterStatus.CANCELED, message.status());
+    }
+
+    @Test
+    void deserialize_shouldRejectUnknownSchemaVersion() {
+        // given
+        final Headers headers = new RecordHeaders()
+            .add(XPaymentAdapterWireFormat.HEADER, XPaymentAdapterWireFormat.BINARY.headerValue());
+        final XPaymentAdapterResponseDeserializer deserializer = new XPaymentAdapterResponseDeserializer();
+
+        // when / then
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, headers, new byte[] {2, 0}));
+    }
+
+    @Test
+    void serialize_shouldPassRawBytesThroughWithTheirHeaders() {
+        // given
+        final byte[] poisonPill = {1, 9, 9};
+        final Headers headers = new RecordHeaders()
+            .add(XPaymentAdapterWireFormat.HEADER, XPaymentAdapterWireFormat.BINARY.headerValue());
+
+        // when
+        final byte[] data = serializer("json").serialize(TOPIC, headers, poisonPill);
+
+        // then
+        assertArrayEquals(poisonPill, data);
+        assertArrayEquals(
+            XPaymentAdapterWireFormat.BINARY.headerValue(),
+            headers.lastHeader(XPaymentAdapterWireFormat.HEADER).value()
+        );
+    }
+
+    private static XPaymentAdapterMessageSerializer serializer(String format) {
+        final XPaymentAdapterMessageSerializer serializer = new XPaymentAdapterMessageSerializer();
+        serializer.configure(Map.of(
+            JsonSerializer.ADD_TYPE_INFO_HEADERS, false,
+            XPaymentAdapterWireFormat.CONFIG, format
+        ), false);
+        return serializer;
+    }
+}